@@ -0,0 +1,137 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link UuidLongMap} against ConcurrentHashMap&lt;UUID, Long&gt;, the map it
+ * replaced for per-player timestamps. Covers lookups of present and absent players,
+ * timestamp updates, and the chat path's mix of several readers with one writer.
+ * See {@link UuidLongMapFootprint} for memory use.
+ *
+ * <p>Run with: mvn -P jmh test-compile exec:exec -Dbenchmark.args=UuidLongMapBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidLongMapBenchmark {
+
+    // A power of two, so the next key is picked with a mask
+    private static final int KEYS = 1 << 12;
+
+    // Online players on one server, and the welcome window of a busy network
+    @Param({"100", "10000"})
+    public int size;
+
+    private UuidLongMap uuidLongMap;
+    private ConcurrentHashMap<UUID, Long> concurrentHashMap;
+    private UUID[] present;
+    private UUID[] absent;
+
+    @Setup
+    public void setup() {
+        uuidLongMap = new UuidLongMap(size);
+        concurrentHashMap = new ConcurrentHashMap<>(size);
+
+        UUID[] players = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            players[i] = UUID.randomUUID();
+            uuidLongMap.put(players[i], i);
+            concurrentHashMap.put(players[i], (long) i);
+        }
+
+        // Spread lookups over every player, in an order the hardware cannot predict
+        present = new UUID[KEYS];
+        absent = new UUID[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            present[i] = players[ThreadLocalRandom.current().nextInt(size)];
+            absent[i] = UUID.randomUUID();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            return next++ & (KEYS - 1);
+        }
+    }
+
+    @Benchmark
+    public long uuidLongMapGetPresent(Cursor cursor) {
+        return uuidLongMap.get(present[cursor.advance()], -1);
+    }
+
+    @Benchmark
+    public Long concurrentHashMapGetPresent(Cursor cursor) {
+        return concurrentHashMap.get(present[cursor.advance()]);
+    }
+
+    @Benchmark
+    public long uuidLongMapGetAbsent(Cursor cursor) {
+        return uuidLongMap.get(absent[cursor.advance()], -1);
+    }
+
+    @Benchmark
+    public Long concurrentHashMapGetAbsent(Cursor cursor) {
+        return concurrentHashMap.get(absent[cursor.advance()]);
+    }
+
+    @Benchmark
+    public void uuidLongMapPut(Cursor cursor) {
+        uuidLongMap.put(present[cursor.advance()], System.nanoTime());
+    }
+
+    @Benchmark
+    public void concurrentHashMapPut(Cursor cursor) {
+        concurrentHashMap.put(present[cursor.advance()], System.nanoTime());
+    }
+
+    @Benchmark
+    @Group("uuidLongMapMixed")
+    @GroupThreads(3)
+    public long uuidLongMapMixedRead(Cursor cursor) {
+        return uuidLongMap.get(present[cursor.advance()], -1);
+    }
+
+    @Benchmark
+    @Group("uuidLongMapMixed")
+    @GroupThreads(1)
+    public void uuidLongMapMixedWrite(Cursor cursor) {
+        uuidLongMap.put(present[cursor.advance()], System.nanoTime());
+    }
+
+    @Benchmark
+    @Group("concurrentHashMapMixed")
+    @GroupThreads(3)
+    public Long concurrentHashMapMixedRead(Cursor cursor) {
+        return concurrentHashMap.get(present[cursor.advance()]);
+    }
+
+    @Benchmark
+    @Group("concurrentHashMapMixed")
+    @GroupThreads(1)
+    public void concurrentHashMapMixedWrite(Cursor cursor) {
+        concurrentHashMap.put(present[cursor.advance()], System.nanoTime());
+    }
+}
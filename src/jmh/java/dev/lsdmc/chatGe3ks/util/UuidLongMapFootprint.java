@@ -0,0 +1,101 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Heap retained per entry by {@link UuidLongMap} and by ConcurrentHashMap&lt;UUID, Long&gt;.
+ * JMH measures time rather than retained memory, so this is a plain program: it fills
+ * each map and compares heap use after a full collection before and after. The UUIDs
+ * exist before the baseline is taken, as player UUIDs do on a server, so they are not
+ * counted against ConcurrentHashMap even though it keeps them alive.
+ *
+ * <p>Run with: mvn -P jmh test-compile exec:exec -Dbenchmark.main=dev.lsdmc.chatGe3ks.util.UuidLongMapFootprint
+ * -Dbenchmark.args="1000 100000 1000000"</p>
+ */
+public final class UuidLongMapFootprint {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final int MIN_MEASURED_ENTRIES = 1_000_000;
+
+    private UuidLongMapFootprint() {
+    }
+
+    public static void main(String[] args) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String arg : args) {
+            try {
+                sizes.add(Integer.parseInt(arg));
+            } catch (NumberFormatException ignored) {
+                // The profile's default arguments name a benchmark filter, not a size
+            }
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(1_000, 100_000, 1_000_000);
+        }
+
+        System.out.printf("%12s %22s %22s%n", "entries", "UuidLongMap B/entry", "ConcurrentHashMap B/entry");
+        for (int size : sizes) {
+            UUID[] keys = new UUID[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = UUID.randomUUID();
+            }
+
+            double uuidLongMap = bytesPerEntry(keys, entries -> {
+                UuidLongMap map = new UuidLongMap();
+                for (int i = 0; i < entries.length; i++) {
+                    map.put(entries[i], System.currentTimeMillis() + i);
+                }
+                return map;
+            });
+            double concurrentHashMap = bytesPerEntry(keys, entries -> {
+                ConcurrentHashMap<UUID, Long> map = new ConcurrentHashMap<>();
+                for (int i = 0; i < entries.length; i++) {
+                    // Timestamps are large enough that Long.valueOf never returns a cached box
+                    map.put(entries[i], System.currentTimeMillis() + i);
+                }
+                return map;
+            });
+
+            System.out.printf("%12d %22.1f %22.1f%n", size, uuidLongMap, concurrentHashMap);
+        }
+    }
+
+    /**
+     * Builds maps from the keys and measures the heap they retain, averaged over a few runs.
+     * Small maps are built many times over, so the total is well above the heap's accounting noise.
+     */
+    private static double bytesPerEntry(UUID[] keys, Function<UUID[], Object> build) {
+        int runs = 5;
+        int copies = Math.max(1, MIN_MEASURED_ENTRIES / keys.length);
+        long total = 0;
+
+        for (int run = 0; run < runs; run++) {
+            Object[] maps = new Object[copies];
+            long before = usedHeapAfterGc();
+            for (int copy = 0; copy < copies; copy++) {
+                maps[copy] = build.apply(keys);
+            }
+            long after = usedHeapAfterGc();
+            // Keep the maps reachable until they have been measured
+            Reference.reachabilityFence(maps);
+            total += after - before;
+        }
+
+        return (double) total / runs / copies / keys.length;
+    }
+
+    private static long usedHeapAfterGc() {
+        // A few rounds, since one collection may not reclaim everything it could
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
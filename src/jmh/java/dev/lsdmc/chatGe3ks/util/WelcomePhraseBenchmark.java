@@ -0,0 +1,95 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cost per chat message of the single welcome phrase check, on the same chat sample as
+ * {@link WelcomePhrasesBenchmark}. Compares the in-place matcher that replaced the chat
+ * listener's regex with that regex. The matcher has since given way to {@link WelcomePhrases},
+ * so its logic is kept here as {@link #matchesWelcome}, unchanged.
+ *
+ * <p>Run with: mvn -P jmh test-compile exec:exec -Dbenchmark.args=WelcomePhraseBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WelcomePhraseBenchmark {
+
+    private static final String PHRASE = "welcome";
+    private static final int CASE_BIT = 0x20;
+
+    // What ChatListener matched before
+    private final Pattern pattern = Pattern.compile("^\\s*welcome\\s*$", Pattern.CASE_INSENSITIVE);
+
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public int welcomePhrase() {
+        int welcomes = 0;
+        for (String message : WelcomePhrasesBenchmark.MESSAGES) {
+            if (matchesWelcome(message)) {
+                welcomes++;
+            }
+        }
+        return welcomes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public int pattern() {
+        int welcomes = 0;
+        for (String message : WelcomePhrasesBenchmark.MESSAGES) {
+            if (pattern.matcher(message).matches()) {
+                welcomes++;
+            }
+        }
+        return welcomes;
+    }
+
+    /**
+     * WelcomePhrase.matches: trims the characters of \s in place and compares the rest
+     * with ASCII case folding, rejecting most messages by their length alone
+     */
+    static boolean matchesWelcome(String message) {
+        int end = message.length();
+        if (end < PHRASE.length()) {
+            return false;
+        }
+
+        int start = 0;
+        while (start < end && isWhitespace(message.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(message.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start != PHRASE.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < PHRASE.length(); i++) {
+            if ((message.charAt(start + i) | CASE_BIT) != PHRASE.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
@@ -0,0 +1,121 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cost per chat message of configurable welcome detection, over a sample of ordinary chat
+ * with a few welcomes mixed in. Compares the compiled phrase automaton with the single
+ * regex the chat listener used before, and with a regex over the same phrase list, which
+ * is what supporting several phrases with Pattern would look like. The single-phrase
+ * matcher that preceded the automaton is measured by {@link WelcomePhraseBenchmark}.
+ *
+ * <p>Run with: mvn -P jmh test-compile exec:exec -Dbenchmark.args=WelcomePhrasesBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WelcomePhrasesBenchmark {
+
+    // The phrases shipped in config.yml
+    private static final List<String> PHRASES = List.of("welcome", "wb", "welcome back", "bienvenue", "willkommen",
+            "bienvenido", "benvenuto", "bem-vindo", "welkom", "ようこそ");
+
+    // Roughly one message in eight is a welcome, as in a busy lobby after a few joins
+    static final String[] MESSAGES = {
+            "anyone want to trade diamonds for emeralds?",
+            "lol",
+            "welcome!",
+            "where is the nether portal",
+            "brb",
+            "can someone tp me to spawn",
+            "gg",
+            "how do i claim land here",
+            "Welcome back",
+            "ok",
+            "i found a village at 1200 -340",
+            "who took my elytra >:(",
+            "is the server lagging for anyone else?",
+            "wb",
+            "yes",
+            "selling iron 64 for 10 coins, pm me",
+            "the mob farm is broken again",
+            "bienvenue :)",
+            "omg creeper just blew up my house",
+            "what's the command for homes",
+            "nice build!",
+            "ty",
+            "lag",
+            "  welcome  ",
+            "does anyone have spare oak logs",
+            "afk for 5 min",
+            "when is the next event",
+            "bem vindo!",
+            "hello",
+            "good night everyone",
+            "where do i vote",
+            "welcome to the server, read the rules at /rules"
+    };
+
+    private final WelcomePhrases phrases = WelcomePhrases.compile(PHRASES);
+
+    // What ChatListener matched before phrases became configurable
+    private final Pattern singlePattern = Pattern.compile("^\\s*welcome\\s*$", Pattern.CASE_INSENSITIVE);
+
+    // The phrase list as one alternation, tolerating the punctuation and separators the automaton ignores
+    private final Pattern phrasePattern = Pattern.compile(
+            "^[\\s\\p{P}\\p{S}]*(?:welcome|wb|welcome[\\s_-]+back|bienvenue|willkommen|bienvenido|benvenuto"
+                    + "|bem[\\s_-]+vindo|welkom|ようこそ)[\\s\\p{P}\\p{S}]*$",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public int welcomePhrases() {
+        int welcomes = 0;
+        for (String message : MESSAGES) {
+            if (phrases.matches(message)) {
+                welcomes++;
+            }
+        }
+        return welcomes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public int singlePattern() {
+        int welcomes = 0;
+        for (String message : MESSAGES) {
+            if (singlePattern.matcher(message).matches()) {
+                welcomes++;
+            }
+        }
+        return welcomes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public int phrasePattern() {
+        int welcomes = 0;
+        for (String message : MESSAGES) {
+            if (phrasePattern.matcher(message).matches()) {
+                welcomes++;
+            }
+        }
+        return welcomes;
+    }
+}
@@ -4,14 +4,22 @@ import dev.lsdmc.chatGe3ks.commands.CommandManager;
 import dev.lsdmc.chatGe3ks.data.DataManager;
 import dev.lsdmc.chatGe3ks.listeners.ChatListener;
 import dev.lsdmc.chatGe3ks.listeners.JoinListener;
+import dev.lsdmc.chatGe3ks.listeners.LegacyChatListener;
+import dev.lsdmc.chatGe3ks.listeners.PaperChatListener;
 import dev.lsdmc.chatGe3ks.messenger.PluginMessenger;
 import dev.lsdmc.chatGe3ks.rewards.RewardsManager;
 import dev.lsdmc.chatGe3ks.tasks.CleanupTask;
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
+import dev.lsdmc.chatGe3ks.tasks.MainThreadQueue;
+import dev.lsdmc.chatGe3ks.tasks.TimerWheel;
 import dev.lsdmc.chatGe3ks.util.ConfigValidator;
 import dev.lsdmc.chatGe3ks.util.Constants;
 import dev.lsdmc.chatGe3ks.util.LoggerUtils;
 import dev.lsdmc.chatGe3ks.util.MessageUtils;
+import dev.lsdmc.chatGe3ks.util.WelcomePhrases;
+import dev.lsdmc.chatGe3ks.welcome.WelcomeBroadcaster;
 import dev.lsdmc.chatGe3ks.welcome.WelcomeMessagesManager;
+import dev.lsdmc.chatGe3ks.welcome.WelcomeRateLimiter;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.PluginManager;
@@ -26,6 +34,9 @@ public final class ChatGe3ks extends JavaPlugin {
     private CommandManager commandManager;
     private PluginMessenger pluginMessenger;
     private ChatListener chatListener;
+    private IoExecutor ioExecutor;
+    private TimerWheel timerWheel;
+    private MainThreadQueue mainThreadQueue;
 
     // Utility classes
     private ConfigValidator configValidator;
@@ -37,6 +48,9 @@ public final class ChatGe3ks extends JavaPlugin {
 
     // Config values
     private int welcomeWindowDuration;
+    private int welcomeMaxGreeters;
+    private int welcomeBroadcastWindow;
+    private WelcomePhrases welcomePhrases;
 
     @Override
     public void onEnable() {
@@ -84,13 +98,28 @@ public final class ChatGe3ks extends JavaPlugin {
         welcomeWindowDuration = getConfig().getInt(Constants.Config.WELCOME_WINDOW,
                 (int) Constants.Time.DEFAULT_WELCOME_WINDOW_SECONDS);
         loggerUtils.info("Welcome window duration set to " + welcomeWindowDuration + " seconds");
+
+        welcomeMaxGreeters = getConfig().getInt(Constants.Config.WELCOME_MAX_GREETERS, 3);
+        welcomeBroadcastWindow = getConfig().getInt(Constants.Config.WELCOME_BROADCAST_WINDOW, 3);
+
+        welcomePhrases = WelcomePhrases.compile(getConfig().getStringList(Constants.Config.WELCOME_PHRASES));
+        loggerUtils.info("Loaded " + welcomePhrases.size() + " welcome phrases");
     }
 
     private void initializeManagers() {
+        // Delayed main thread work, advanced every tick
+        timerWheel = new TimerWheel(loggerUtils);
+
+        // Main thread work from other threads, drained every tick within a time budget
+        mainThreadQueue = new MainThreadQueue(loggerUtils, getConfig().getDouble(Constants.Config.MAIN_THREAD_TICK_BUDGET, 2.0));
+
+        // Blocking Redis and file I/O runs here; one Redis task per pooled connection
+        ioExecutor = new IoExecutor(loggerUtils, getConfig().getInt(Constants.Config.REDIS_POOL_SIZE, 8), 2);
+
         // Initialize DataManager
         dataManager = new DataManager(this);
         if (!dataManager.init()) {
-            loggerUtils.warning("Failed to initialize Redis connection - first join detection may not work properly");
+            loggerUtils.warning("Failed to initialize first join storage - first join detection may not work properly");
         }
 
         // Initialize WelcomeMessagesManager
@@ -115,8 +144,31 @@ public final class ChatGe3ks extends JavaPlugin {
         pm.registerEvents(new JoinListener(this, dataManager, welcomeMessagesManager), this);
 
         // Initialize and register ChatListener
-        chatListener = new ChatListener(this, rewardsManager, welcomeWindowDuration);
+        WelcomeBroadcaster broadcaster = new WelcomeBroadcaster(this, timerWheel, mainThreadQueue,
+                (long) welcomeBroadcastWindow * Constants.Time.TICKS_PER_SECOND);
+        WelcomeRateLimiter rateLimiter = new WelcomeRateLimiter(
+                getConfig().getDouble(Constants.Config.WELCOME_RATE_LIMIT_RATE, 0.2),
+                getConfig().getInt(Constants.Config.WELCOME_RATE_LIMIT_BURST, 3),
+                getServer().getMaxPlayers());
+        chatListener = new ChatListener(this, rewardsManager, welcomeWindowDuration, welcomeMaxGreeters,
+                welcomePhrases, timerWheel, broadcaster, rateLimiter);
         pm.registerEvents(chatListener, this);
+
+        // Listening to the legacy chat event would make Paper convert every message for it
+        if (isPaper()) {
+            pm.registerEvents(new PaperChatListener(chatListener), this);
+        } else {
+            pm.registerEvents(new LegacyChatListener(chatListener), this);
+        }
+    }
+
+    private static boolean isPaper() {
+        try {
+            Class.forName("io.papermc.paper.event.player.AsyncChatEvent");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
     }
 
     private void registerCommands() {
@@ -124,12 +176,17 @@ public final class ChatGe3ks extends JavaPlugin {
     }
 
     private void scheduleTasks() {
+        // Drive the timer wheel from the server tick
+        getServer().getScheduler().runTaskTimer(this, timerWheel, 1L, 1L);
+
+        // Drain queued main thread work every tick
+        getServer().getScheduler().runTaskTimer(this, mainThreadQueue, 1L, 1L);
+
         // Schedule cleanup task (runs every minute)
-        getServer().getScheduler().runTaskTimer(
-                this,
-                new CleanupTask(this, chatListener),
-                1200L, // 1 minute delay 
-                1200L  // 1 minute interval
+        timerWheel.scheduleRepeating(
+                1200L, // 1 minute delay
+                1200L, // 1 minute interval
+                new CleanupTask(this)
         );
     }
 
@@ -158,6 +215,11 @@ public final class ChatGe3ks extends JavaPlugin {
             pluginMessenger.shutdown();
         }
 
+        // Let pending file saves finish
+        if (ioExecutor != null) {
+            ioExecutor.shutdown(getConfig().getInt("redis.timeout", 2000));
+        }
+
         // Close message utils
         if (messageUtils != null) {
             messageUtils.close();
@@ -197,6 +259,18 @@ public final class ChatGe3ks extends JavaPlugin {
         return pluginMessenger;
     }
 
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    public MainThreadQueue getMainThreadQueue() {
+        return mainThreadQueue;
+    }
+
+    public IoExecutor getIoExecutor() {
+        return ioExecutor;
+    }
+
     public CommandManager getCommandManager() {
         return commandManager;
     }
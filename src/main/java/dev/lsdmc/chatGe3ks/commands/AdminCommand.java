@@ -0,0 +1,253 @@
+package dev.lsdmc.chatGe3ks.commands;
+
+import dev.lsdmc.chatGe3ks.ChatGe3ks;
+import dev.lsdmc.chatGe3ks.data.DataManager;
+import dev.lsdmc.chatGe3ks.data.RedisHealthMonitor;
+import dev.lsdmc.chatGe3ks.tasks.MainThreadQueue;
+import dev.lsdmc.chatGe3ks.util.Constants;
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+import dev.lsdmc.chatGe3ks.util.MessageUtils;
+import dev.lsdmc.chatGe3ks.util.SegmentedLruCache;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Administrative commands for maintaining plugin data
+ */
+public class AdminCommand implements CommandExecutor, TabCompleter {
+
+    // Report migration progress at most this often
+    private static final long PROGRESS_INTERVAL = 50_000;
+
+    private final ChatGe3ks plugin;
+    private final MessageUtils messageUtils;
+    private final LoggerUtils logger;
+
+    public AdminCommand(ChatGe3ks plugin) {
+        this.plugin = plugin;
+        this.messageUtils = plugin.getMessageUtils();
+        this.logger = plugin.getLoggerUtils();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
+        if (args.length == 0) {
+            showHelp(sender);
+            return true;
+        }
+
+        String subcommand = args[0].toLowerCase();
+        return switch (subcommand) {
+            case "migrate" -> handleMigrateCommand(sender);
+            case "status" -> handleStatusCommand(sender);
+            case "import" -> handleImportCommand(sender);
+            case "help" -> {
+                showHelp(sender);
+                yield true;
+            }
+            default -> {
+                messageUtils.sendError(sender, "Unknown subcommand. Use /chatgeeks help for usage information.");
+                yield true;
+            }
+        };
+    }
+
+    private boolean handleMigrateCommand(CommandSender sender) {
+        if (!hasPermission(sender, Constants.Permissions.ADMIN_MIGRATE)) {
+            messageUtils.sendError(sender, "You don't have permission to migrate first join records.");
+            return true;
+        }
+
+        messageUtils.sendInfo(sender, "Migrating first join records to the bucketed layout...");
+        logger.info(sender.getName() + " started a first join record migration");
+
+        AtomicLong lastReported = new AtomicLong();
+        plugin.getDataManager().migrateLegacyFirstJoins(migrated -> {
+            if (migrated - lastReported.get() >= PROGRESS_INTERVAL) {
+                lastReported.set(migrated);
+                logger.info("First join migration: " + migrated + " records moved");
+                runSync(() -> messageUtils.sendInfo(sender, migrated + " records moved so far..."));
+            }
+        }).whenComplete((migrated, error) -> runSync(() -> {
+            if (error != null) {
+                messageUtils.sendError(sender, "Migration failed: " + error.getMessage());
+                logger.warning("First join migration failed: " + error.getMessage());
+            } else {
+                messageUtils.sendSuccess(sender, "Migration finished, " + migrated + " records moved.");
+                logger.info("First join migration finished, " + migrated + " records moved");
+            }
+        }));
+
+        return true;
+    }
+
+    private boolean handleImportCommand(CommandSender sender) {
+        if (!hasPermission(sender, Constants.Permissions.ADMIN_IMPORT)) {
+            messageUtils.sendError(sender, "You don't have permission to import players.");
+            return true;
+        }
+
+        List<World> worlds = plugin.getServer().getWorlds();
+        File userCache = new File(plugin.getServer().getWorldContainer(), "usercache.json");
+        File playerData = worlds.isEmpty() ? null : new File(worlds.get(0).getWorldFolder(), "playerdata");
+
+        // The offline player list is built from playerdata, so it is only needed when that is missing
+        Map<UUID, Long> offlinePlayers = Collections.emptyMap();
+        if (playerData == null || !playerData.isDirectory()) {
+            offlinePlayers = Arrays.stream(plugin.getServer().getOfflinePlayers())
+                    .collect(Collectors.toMap(OfflinePlayer::getUniqueId, OfflinePlayer::getFirstPlayed, Math::min));
+        }
+
+        messageUtils.sendInfo(sender, "Importing existing players into the first join store...");
+        logger.info(sender.getName() + " started an import of existing players");
+
+        AtomicLong lastReported = new AtomicLong();
+        plugin.getDataManager().importExistingPlayers(userCache, playerData, offlinePlayers, scanned -> {
+            if (scanned - lastReported.get() >= PROGRESS_INTERVAL) {
+                lastReported.set(scanned);
+                logger.info("Player import: " + scanned + " players read");
+                runSync(() -> messageUtils.sendInfo(sender, scanned + " players read so far..."));
+            }
+        }).whenComplete((result, error) -> runSync(() -> {
+            if (error != null) {
+                messageUtils.sendError(sender, "Import failed: " + error.getMessage());
+                logger.warning("Player import failed: " + error.getMessage());
+            } else {
+                messageUtils.sendSuccess(sender, "Import finished, " + result.scanned() + " players read, " +
+                        result.imported() + " newly recorded.");
+                logger.info("Player import finished, " + result.scanned() + " players read, " +
+                        result.imported() + " newly recorded");
+            }
+        }));
+
+        return true;
+    }
+
+    private boolean handleStatusCommand(CommandSender sender) {
+        if (!hasPermission(sender, Constants.Permissions.ADMIN_STATUS)) {
+            messageUtils.sendError(sender, "You don't have permission to view plugin status.");
+            return true;
+        }
+
+        DataManager dataManager = plugin.getDataManager();
+        RedisHealthMonitor.Snapshot health = dataManager.getRedisHealth();
+
+        if (!dataManager.usesRedis()) {
+            String store = dataManager.describeStore();
+            if (store != null) {
+                messageUtils.sendSuccess(sender, "Storage: " + store);
+            } else {
+                messageUtils.sendError(sender, "Storage: unavailable, using in-memory first join data");
+            }
+        } else if (dataManager.isRedisAvailable()) {
+            messageUtils.sendSuccess(sender, "Redis: available");
+        } else {
+            messageUtils.sendError(sender, "Redis: unavailable, using local first join data");
+        }
+
+        if (health != null && health.samples() > 0) {
+            long secondsAgo = (System.currentTimeMillis() - health.lastCheckMillis()) / 1000;
+            messageUtils.sendInfo(sender, "Round trip p50/p95/p99: " + formatMicros(health.p50Micros()) + " / " +
+                    formatMicros(health.p95Micros()) + " / " + formatMicros(health.p99Micros()) +
+                    " (last check " + secondsAgo + "s ago)");
+        }
+
+        SegmentedLruCache.Stats cache = dataManager.getLocalCacheStats();
+        messageUtils.sendInfo(sender, String.format("First join cache: %d players, %.1f%% hit rate",
+                cache.size(), cache.hitRate() * 100));
+
+        MainThreadQueue.Stats queue = plugin.getMainThreadQueue().stats();
+        messageUtils.sendInfo(sender, String.format("Main thread queue: %d waiting, last tick %.2fms for %d tasks, max %.2fms, %d ticks over budget",
+                queue.depth(), queue.lastTickNanos() / 1e6, queue.lastTickTasks(), queue.maxTickNanos() / 1e6, queue.deferredTicks()));
+
+        messageUtils.sendInfo(sender, "Welcome attempts dropped by the rate limit: " +
+                plugin.getChatListener().getRateLimitedWelcomeCount());
+
+        return true;
+    }
+
+    private static String formatMicros(long micros) {
+        return micros >= 1000 ? String.format("%.1fms", micros / 1000.0) : micros + "us";
+    }
+
+    /**
+     * Runs a task on the main thread, as long as the plugin is still enabled
+     */
+    private void runSync(Runnable task) {
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private void showHelp(CommandSender sender) {
+        Component header = Component.text("=== ChatGe3ks Admin Commands ===")
+                .color(NamedTextColor.GOLD)
+                .decorate(TextDecoration.BOLD);
+
+        Component migrateCmd = Component.text("/chatgeeks migrate")
+                .color(NamedTextColor.GREEN)
+                .append(Component.text(" - Move first join records to the bucketed layout").color(NamedTextColor.GRAY));
+
+        Component importCmd = Component.text("/chatgeeks import")
+                .color(NamedTextColor.GREEN)
+                .append(Component.text(" - Record existing players so they are not welcomed as new").color(NamedTextColor.GRAY));
+
+        Component statusCmd = Component.text("/chatgeeks status")
+                .color(NamedTextColor.GREEN)
+                .append(Component.text(" - Show Redis health and cache statistics").color(NamedTextColor.GRAY));
+
+        plugin.adventure().sender(sender).sendMessage(header);
+        plugin.adventure().sender(sender).sendMessage(migrateCmd);
+        plugin.adventure().sender(sender).sendMessage(importCmd);
+        plugin.adventure().sender(sender).sendMessage(statusCmd);
+    }
+
+    /**
+     * Checks if the sender has the specified permission
+     */
+    private boolean hasPermission(CommandSender sender, String permission) {
+        // Console always has permission
+        if (!(sender instanceof Player)) {
+            return true;
+        }
+
+        return sender.hasPermission(permission) || sender.hasPermission(Constants.Permissions.ADMIN_BASE + ".*");
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, String[] args) {
+        if (args.length == 1) {
+            List<String> subcommands = new ArrayList<>();
+
+            if (hasPermission(sender, Constants.Permissions.ADMIN_MIGRATE)) subcommands.add("migrate");
+            if (hasPermission(sender, Constants.Permissions.ADMIN_IMPORT)) subcommands.add("import");
+            if (hasPermission(sender, Constants.Permissions.ADMIN_STATUS)) subcommands.add("status");
+            subcommands.add("help");
+
+            return subcommands.stream()
+                    .filter(option -> option.startsWith(args[0].toLowerCase()))
+                    .collect(Collectors.toList());
+        }
+
+        return Collections.emptyList();
+    }
+}
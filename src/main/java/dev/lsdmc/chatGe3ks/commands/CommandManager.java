@@ -32,6 +32,7 @@ public class CommandManager {
 
         
         registerCommand("welcomemsg", welcomeMsgCommand);
+        registerCommand("chatgeeks", new AdminCommand(plugin));
 
         
     }
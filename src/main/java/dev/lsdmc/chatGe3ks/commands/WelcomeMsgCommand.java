@@ -141,12 +141,15 @@ public class WelcomeMsgCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        if (manager.addMessage(newMessage)) {
-            messageUtils.sendSuccess(sender, "Welcome message added: " + newMessage);
-            logger.info(sender.getName() + " added welcome message: " + newMessage);
-        } else {
-            messageUtils.sendError(sender, "Failed to add welcome message.");
-        }
+        // Saved off the main thread; report back on it once the file is written
+        manager.addMessage(newMessage).thenAccept(saved -> runSync(() -> {
+            if (saved) {
+                messageUtils.sendSuccess(sender, "Welcome message added: " + newMessage);
+                logger.info(sender.getName() + " added welcome message: " + newMessage);
+            } else {
+                messageUtils.sendError(sender, "Failed to add welcome message.");
+            }
+        }));
 
         return true;
     }
@@ -164,12 +167,19 @@ public class WelcomeMsgCommand implements CommandExecutor, TabCompleter {
 
         try {
             int removeIndex = Integer.parseInt(args[1]) - 1; // Convert to 0-based index
-            if (manager.removeMessage(removeIndex)) {
-                messageUtils.sendSuccess(sender, "Removed welcome message at index " + (removeIndex + 1));
-                logger.info(sender.getName() + " removed welcome message at index " + (removeIndex + 1));
-            } else {
+            if (removeIndex < 0 || removeIndex >= manager.getMessages().size()) {
                 messageUtils.sendError(sender, "Invalid index. Use /welcomemsg list to see available messages.");
+                return true;
             }
+
+            manager.removeMessage(removeIndex).thenAccept(saved -> runSync(() -> {
+                if (saved) {
+                    messageUtils.sendSuccess(sender, "Removed welcome message at index " + (removeIndex + 1));
+                    logger.info(sender.getName() + " removed welcome message at index " + (removeIndex + 1));
+                } else {
+                    messageUtils.sendError(sender, "Failed to save welcome messages after removing index " + (removeIndex + 1));
+                }
+            }));
         } catch (NumberFormatException e) {
             messageUtils.sendError(sender, "Please provide a valid number for the index.");
         }
@@ -190,6 +200,15 @@ public class WelcomeMsgCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * Runs a task on the main thread, as long as the plugin is still enabled
+     */
+    private void runSync(Runnable task) {
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
     private void showHelp(CommandSender sender) {
         // Create header component
         Component header = Component.text("=== Welcome Messages Commands ===")
@@ -0,0 +1,219 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local cache of Redis values kept coherent by server-assisted invalidation.
+ * Each primary gets a tracking connection in broadcast mode for the plugin's key prefix,
+ * with invalidations redirected to a dedicated subscriber connection read on the I/O executor.
+ * If a subscriber is lost the cache is cleared and bypassed until the health monitor
+ * replaces it with a fresh one.
+ */
+class ClientSideCache implements AutoCloseable {
+
+    private static final String INVALIDATE_CHANNEL = "__redis__:invalidate";
+
+    private final LoggerUtils logger;
+    private final IoExecutor ioExecutor;
+    private final String prefix;
+    private final Map<String, String> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private final List<Jedis> connections = new ArrayList<>();
+    private volatile boolean active = false;
+
+    /**
+     * Creates a new cache
+     *
+     * @param logger The logger for tracking errors
+     * @param ioExecutor The executor that runs the invalidation listeners
+     * @param prefix Key prefix to track
+     * @param maxEntries Maximum number of cached keys
+     */
+    ClientSideCache(LoggerUtils logger, IoExecutor ioExecutor, String prefix, int maxEntries) {
+        this.logger = logger;
+        this.ioExecutor = ioExecutor;
+        this.prefix = prefix;
+
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Enables tracking on the given primaries. Takes ownership of the connections.
+     *
+     * @param dedicated Two dedicated connections per primary: subscriber first, then tracker
+     * @throws IllegalStateException If the executor no longer accepts listeners
+     */
+    synchronized void start(List<Jedis> dedicated) {
+        connections.addAll(dedicated);
+        List<Connection> subscribers = new ArrayList<>();
+
+        for (int i = 0; i + 1 < dedicated.size(); i += 2) {
+            Jedis subscriber = dedicated.get(i);
+            Jedis tracker = dedicated.get(i + 1);
+
+            // Subscribe before tracking starts so no invalidation can be missed
+            long subscriberId = subscriber.clientId();
+            Connection connection = subscriber.getConnection();
+            connection.sendCommand(Protocol.Command.SUBSCRIBE, INVALIDATE_CHANNEL);
+            connection.getObjectMultiBulkReply();
+
+            tracker.sendCommand(Protocol.Command.CLIENT, "TRACKING", "ON",
+                    "REDIRECT", String.valueOf(subscriberId), "BCAST", "PREFIX", prefix);
+
+            subscribers.add(connection);
+        }
+
+        active = true;
+        for (Connection connection : subscribers) {
+            if (!ioExecutor.startLoop(() -> listen(connection))) {
+                active = false;
+                throw new IllegalStateException("I/O executor has been shut down");
+            }
+        }
+    }
+
+    /**
+     * Gets a cached value
+     *
+     * @param key The Redis key
+     * @return The cached value, or null on a miss
+     */
+    String get(String key) {
+        if (!active) {
+            return null;
+        }
+
+        String value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value read from or written to Redis
+     *
+     * @param key The Redis key
+     * @param value The value
+     */
+    void put(String key, String value) {
+        if (!active) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    private void listen(Connection connection) {
+        try {
+            connection.setTimeoutInfinite();
+
+            while (active) {
+                List<Object> reply = connection.getObjectMultiBulkReply();
+                if (reply == null || reply.size() < 3 || !"message".equals(asString(reply.get(0)))) {
+                    continue;
+                }
+
+                Object payload = reply.get(2);
+                if (payload instanceof List<?> keys) {
+                    // RESP2 invalidation: array of keys
+                    synchronized (entries) {
+                        for (Object key : keys) {
+                            entries.remove(asString(key));
+                        }
+                    }
+                    invalidations.add(keys.size());
+                } else {
+                    // A null payload means the server flushed its keyspace
+                    clear();
+                }
+            }
+        } catch (Exception e) {
+            if (active) {
+                // Without invalidations the cache could serve stale data, so stop using it
+                logger.warning("Lost Redis cache invalidation stream, disabling client-side cache: " + e.getMessage());
+                active = false;
+                clear();
+            }
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static String asString(Object value) {
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+
+    /**
+     * Stops tracking and closes the dedicated connections
+     */
+    @Override
+    public synchronized void close() {
+        active = false;
+        clear();
+
+        for (Jedis jedis : connections) {
+            try {
+                jedis.close();
+            } catch (Exception ignored) {
+                // Closing unblocks the listener threads
+            }
+        }
+        connections.clear();
+    }
+}
@@ -0,0 +1,245 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Connector for a Redis Cluster.
+ * Batches are split by hash slot and the slots owned by the same primary share a
+ * pipeline, so a batch costs one round trip per shard instead of one per key.
+ * Commands answered with MOVED are sent again after a slot map refresh; commands
+ * answered with ASK, for a slot being migrated, go to the target node behind ASKING.
+ */
+class ClusterRedisConnector extends RedisConnector {
+
+    private static final int SLOT_COUNT = 16384;
+
+    private final ClusterConnectionProvider provider;
+    private final Set<HostAndPort> seeds;
+    private final JedisClientConfig clientConfig;
+    private volatile boolean closed = false;
+
+    // Derived from the slot map, so it is rebuilt only after the slot map is refreshed
+    private volatile Set<HostAndPort> primaries;
+
+    ClusterRedisConnector(Set<HostAndPort> seeds, JedisClientConfig clientConfig, ConnectionPoolConfig poolConfig) {
+        this.seeds = seeds;
+        this.clientConfig = clientConfig;
+        this.provider = new ClusterConnectionProvider(seeds, clientConfig, poolConfig);
+    }
+
+    @Override
+    Jedis getResourceForSlot(int slot) {
+        return new Jedis(provider.getConnectionFromSlot(slot));
+    }
+
+    @Override
+    <K, T> List<Object> pipelinedReplies(List<K> items, ToIntFunction<K> slotOf,
+                                         BiFunction<Pipeline, K, Response<T>> command) {
+        Object[] replies = new Object[items.size()];
+        int[] slots = new int[items.size()];
+
+        List<Integer> pending = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            slots[i] = slotOf.applyAsInt(items.get(i));
+            pending.add(i);
+        }
+
+        // A second pass after refreshing the slot map picks up keys that moved during resharding
+        for (int attempt = 0; attempt < 2 && !pending.isEmpty(); attempt++) {
+            if (attempt > 0) {
+                renewSlotCache();
+            }
+            pending = runPipelines(items, slots, pending, command, replies);
+        }
+
+        if (!pending.isEmpty()) {
+            throw new JedisClusterOperationException(pending.size() + " commands were still being redirected after a slot refresh");
+        }
+
+        return Arrays.asList(replies);
+    }
+
+    /**
+     * Pipelines the given items on the primaries owning their slots
+     *
+     * @return Indices of items that were moved and need another attempt after a slot refresh
+     */
+    private <K, T> List<Integer> runPipelines(List<K> items, int[] slots, List<Integer> indices,
+                                              BiFunction<Pipeline, K, Response<T>> command, Object[] replies) {
+        // Group by hash slot first, then merge the slots that share a primary
+        Map<Integer, List<Integer>> bySlot = new HashMap<>();
+        for (int index : indices) {
+            bySlot.computeIfAbsent(slots[index], slot -> new ArrayList<>()).add(index);
+        }
+
+        Map<HostAndPort, List<Integer>> byNode = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : bySlot.entrySet()) {
+            byNode.computeIfAbsent(nodeForSlot(entry.getKey()), node -> new ArrayList<>()).addAll(entry.getValue());
+        }
+
+        List<Integer> redirected = new ArrayList<>();
+        Map<HostAndPort, List<Integer>> asked = new HashMap<>();
+        for (Map.Entry<HostAndPort, List<Integer>> entry : byNode.entrySet()) {
+            runPipeline(entry.getKey(), false, items, entry.getValue(), command, replies, redirected, asked);
+        }
+
+        // Keys of a migrating slot that already moved are only served after ASKING; the slot
+        // map stays as it is until the migration finishes, and a further redirect is retried
+        for (Map.Entry<HostAndPort, List<Integer>> entry : asked.entrySet()) {
+            runPipeline(entry.getKey(), true, items, entry.getValue(), command, replies, redirected, null);
+        }
+
+        return redirected;
+    }
+
+    /**
+     * Pipelines the given items on one node, optionally prefixing each command with ASKING
+     *
+     * @param asked Collects items answered with ASK by target node, or null to treat ASK like MOVED
+     */
+    private <K, T> void runPipeline(HostAndPort node, boolean asking, List<K> items, List<Integer> indices,
+                                    BiFunction<Pipeline, K, Response<T>> command, Object[] replies,
+                                    List<Integer> redirected, Map<HostAndPort, List<Integer>> asked) {
+        try (Connection connection = provider.getConnection(node)) {
+            Pipeline pipeline = new Pipeline(connection);
+
+            List<Response<T>> responses = new ArrayList<>(indices.size());
+            for (int index : indices) {
+                if (asking) {
+                    // ASKING only applies to the command right after it
+                    pipeline.sendCommand(new CommandArguments(Protocol.Command.ASKING));
+                }
+                responses.add(command.apply(pipeline, items.get(index)));
+            }
+            pipeline.sync();
+
+            for (int i = 0; i < indices.size(); i++) {
+                try {
+                    replies[indices.get(i)] = responses.get(i).get();
+                } catch (JedisAskDataException e) {
+                    if (asked != null) {
+                        asked.computeIfAbsent(e.getTargetNode(), target -> new ArrayList<>()).add(indices.get(i));
+                    } else {
+                        redirected.add(indices.get(i));
+                    }
+                } catch (JedisRedirectionException e) {
+                    redirected.add(indices.get(i));
+                } catch (JedisDataException e) {
+                    replies[indices.get(i)] = e;
+                }
+            }
+        }
+    }
+
+    @Override
+    void forEachPrimary(Consumer<Jedis> action) {
+        for (HostAndPort node : primaries()) {
+            try (Jedis jedis = new Jedis(provider.getConnection(node))) {
+                action.accept(jedis);
+            }
+        }
+    }
+
+    @Override
+    List<HostAndPort> primaryNodes() {
+        return List.copyOf(primaries());
+    }
+
+    @Override
+    Jedis getPrimaryResource(HostAndPort node) {
+        return new Jedis(provider.getConnection(node));
+    }
+
+    @Override
+    List<Jedis> openTrackingConnections() {
+        List<Jedis> connections = new ArrayList<>();
+        try {
+            for (HostAndPort node : primaries()) {
+                connections.add(new Jedis(node, clientConfig));
+                connections.add(new Jedis(node, clientConfig));
+            }
+        } catch (RuntimeException e) {
+            connections.forEach(Jedis::close);
+            throw e;
+        }
+        return connections;
+    }
+
+    private Set<HostAndPort> primaries() {
+        Set<HostAndPort> cached = primaries;
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<HostAndPort> found = new LinkedHashSet<>();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            found.add(nodeForSlot(slot));
+        }
+        cached = Collections.unmodifiableSet(found);
+        primaries = cached;
+        return cached;
+    }
+
+    /**
+     * Refreshes the slot map and drops the primaries derived from it
+     */
+    private void renewSlotCache() {
+        provider.renewSlotCache();
+        primaries = null;
+    }
+
+    private HostAndPort nodeForSlot(int slot) {
+        HostAndPort node = provider.getNode(slot);
+        if (node == null) {
+            renewSlotCache();
+            node = provider.getNode(slot);
+        }
+        if (node == null) {
+            throw new JedisClusterOperationException("No cluster node serves slot " + slot);
+        }
+        return node;
+    }
+
+    @Override
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    String describe() {
+        return "cluster " + seeds;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            provider.close();
+        }
+    }
+}
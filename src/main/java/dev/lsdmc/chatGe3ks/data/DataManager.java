@@ -1,75 +1,397 @@
 package dev.lsdmc.chatGe3ks.data;
 
 import dev.lsdmc.chatGe3ks.ChatGe3ks;
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
 import dev.lsdmc.chatGe3ks.util.Constants;
 import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+import dev.lsdmc.chatGe3ks.util.SegmentedLruCache;
+import org.bukkit.scheduler.BukkitTask;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
 
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 public class DataManager {
 
     private final ChatGe3ks plugin;
-    private JedisPool jedisPool;
-    private boolean redisAvailable = false;
+    // Runs all blocking Redis work on virtual threads, at most one task per pooled connection
+    private final IoExecutor ioExecutor;
+    // Single server or cluster, depending on redis.mode; null with the embedded backend
+    private volatile RedisConnector connector;
+    // Redis or embedded, depending on first-join.storage.backend
+    private FirstJoinStore store;
+    private final boolean embedded;
+
+    // Fails calls fast to local data while Redis is unreachable
+    private final RedisCircuitBreaker breaker;
+    private BukkitTask reconnectTask;
+    private final AtomicBoolean reconnecting = new AtomicBoolean(false);
+
+    // Players registered as new by this server; also the fallback if the local index cannot be opened
+    private final SegmentedLruCache<UUID, Long> firstJoinCache;
 
-    // Local cache for first join data in case Redis is unavailable
-    private final Map<UUID, Long> firstJoinCache = new ConcurrentHashMap<>();
+    // On-disk set of every player this server has resolved, used while Redis is unavailable
+    private volatile MappedFirstJoinIndex localIndex;
     private final LoggerUtils logger;
 
+    // Gathers concurrent first join checks into pipelined batches
+    private FirstJoinBatcher batcher;
+
+    // Bloom filter of players known to have joined before, null if disabled
+    private KnownPlayerFilter knownPlayers;
+    private CompletableFuture<Void> filterWarmup;
+    private volatile boolean shuttingDown = false;
+
+    // Redis-invalidated copy of first join keys, null unless redis.client-cache.enabled
+    private volatile ClientSideCache clientCache;
+
+    // Bucketed hash layout, null when records are one string key per player
+    private final FirstJoinBuckets buckets;
+    // Set once no per-player keys are left, so new players skip the old-key check
+    private volatile boolean legacyKeysMigrated = false;
+    private final AtomicBoolean migrating = new AtomicBoolean(false);
+    private final AtomicBoolean importing = new AtomicBoolean(false);
+    private final AtomicBoolean localIndexFull = new AtomicBoolean(false);
+
+    // First joins decided locally during an outage, replayed once Redis is back
+    private OutageJournal journal;
+    private CompletableFuture<Void> journalReplay;
+
+    // Pings every primary in the background and keeps the availability flag current
+    private volatile RedisHealthMonitor healthMonitor;
+
     public DataManager(ChatGe3ks plugin) {
         this.plugin = plugin;
+        this.ioExecutor = plugin.getIoExecutor();
         this.logger = plugin.getLoggerUtils();
+        this.breaker = new RedisCircuitBreaker(logger,
+                plugin.getConfig().getInt(Constants.Config.REDIS_BREAKER_FAILURE_RATE, 50),
+                plugin.getConfig().getInt(Constants.Config.REDIS_BREAKER_WINDOW, 20),
+                plugin.getConfig().getInt(Constants.Config.REDIS_BREAKER_MINIMUM_CALLS, 5),
+                plugin.getConfig().getLong(Constants.Config.REDIS_BREAKER_SLOW_CALL, 1000),
+                plugin.getConfig().getLong(Constants.Config.REDIS_BREAKER_OPEN_DURATION, 10) * 1000L,
+                plugin.getConfig().getInt(Constants.Config.REDIS_BREAKER_HALF_OPEN_CALLS, 3));
+
+        this.embedded = "embedded".equalsIgnoreCase(
+                plugin.getConfig().getString(Constants.Config.FIRST_JOIN_BACKEND, "redis"));
+
+        String layout = plugin.getConfig().getString(Constants.Config.FIRST_JOIN_LAYOUT, "keys");
+        this.buckets = !embedded && "buckets".equalsIgnoreCase(layout)
+                ? new FirstJoinBuckets(plugin.getConfig().getInt(Constants.Config.FIRST_JOIN_BUCKET_BITS, 16))
+                : null;
+
+        this.firstJoinCache = new SegmentedLruCache<>(
+                plugin.getConfig().getInt(Constants.Config.LOCAL_CACHE_MAX_SIZE, 10_000),
+                plugin.getConfig().getLong(Constants.Config.LOCAL_CACHE_TTL, 86_400),
+                TimeUnit.SECONDS);
     }
 
     /**
-     * Initializes the Redis connection using configuration values from config.yml.
+     * Initializes the Redis connection using configuration values from config.yml,
+     * or opens the embedded store when Redis is not used.
      *
      * @return true if initialization was successful
      */
     public boolean init() {
+        if (embedded) {
+            return initEmbedded();
+        }
+
         try {
-            String host = plugin.getConfig().getString("redis.host", "localhost");
-            int port = plugin.getConfig().getInt("redis.port", 6379);
-            String password = plugin.getConfig().getString("redis.password", "");
-            int timeout = plugin.getConfig().getInt("redis.timeout", 2000);
+            String mode = plugin.getConfig().getString(Constants.Config.REDIS_MODE, "standalone");
+
+            if (localIndex == null) {
+                openLocalIndex();
+            }
+
+            if (journal == null) {
+                openJournal();
+            }
 
-            // Configure connection pool
-            JedisPoolConfig poolConfig = new JedisPoolConfig();
-            poolConfig.setTestOnBorrow(true);
+            // The store and batching lane outlive reconnects, so only create them once
+            if (store == null) {
+                store = new RedisFirstJoinStore(() -> connector, () -> clientCache, buckets, () -> legacyKeysMigrated,
+                        plugin.getConfig().getBoolean(Constants.Config.FIRST_JOIN_METADATA_ENABLED, true),
+                        plugin.getConfig().getString(Constants.Config.FIRST_JOIN_METADATA_SERVER_NAME, ""),
+                        plugin.getConfig().getInt(Constants.Config.FIRST_JOIN_METADATA_DAILY_DAYS, 90));
+            }
+            startBatcher();
+
+            if (knownPlayers == null && plugin.getConfig().getBoolean(Constants.Config.KNOWN_PLAYER_FILTER_ENABLED, true)) {
+                long expectedPlayers = plugin.getConfig().getLong(Constants.Config.KNOWN_PLAYER_FILTER_EXPECTED, 1_000_000);
+                double falsePositiveRate = plugin.getConfig().getDouble(Constants.Config.KNOWN_PLAYER_FILTER_FPP, 0.001);
+                knownPlayers = new KnownPlayerFilter(expectedPlayers, falsePositiveRate);
+                logger.debug("Created known player filter using " + (knownPlayers.sizeInBytes() / 1024) + " KiB");
+            }
 
-            // Initialize the JedisPool
-            if (password != null && !password.isEmpty()) {
-                jedisPool = new JedisPool(poolConfig, host, port, timeout, password);
-            } else {
-                jedisPool = new JedisPool(poolConfig, host, port, timeout);
+            // Background reconnects replace per-call retries while the breaker is open;
+            // the timer only checks the breaker, the reconnect itself runs on the I/O executor
+            if (reconnectTask == null) {
+                reconnectTask = plugin.getServer().getScheduler().runTaskTimer(
+                        plugin, this::scheduleReconnect, Constants.Time.TICKS_PER_SECOND, Constants.Time.TICKS_PER_SECOND);
             }
 
+            connector = switch (mode.toLowerCase()) {
+                case "cluster" -> createClusterConnector();
+                case "sentinel" -> createSentinelConnector();
+                default -> createStandaloneConnector();
+            };
+
             // Test the connection
-            try (Jedis jedis = jedisPool.getResource()) {
-                jedis.ping(); // This will throw an exception if connection fails
-                redisAvailable = true;
-                logger.info("Successfully connected to Redis at " + host + ":" + port);
-                return true;
-            }
-        } catch (JedisConnectionException e) {
-            redisAvailable = false;
+            connector.ping(); // This will throw an exception if connection fails
+            breaker.onConnectionEstablished();
+            if (healthMonitor == null) {
+                healthMonitor = new RedisHealthMonitor(() -> connector, breaker, ioExecutor, logger, this::reselectReplica,
+                        this::restartClientCache, plugin.getConfig().getLong(Constants.Config.REDIS_HEALTH_CHECK_INTERVAL, 5000));
+                healthMonitor.start();
+            }
+            healthMonitor.markAvailable();
+            logger.info("Successfully connected to Redis at " + connector.describe());
+            startReplicaReads();
+            if (buckets != null) {
+                try (Jedis jedis = connector.getResource(Constants.Redis.FIRSTJOIN_MIGRATED_KEY)) {
+                    legacyKeysMigrated = jedis.exists(Constants.Redis.FIRSTJOIN_MIGRATED_KEY);
+                }
+            }
+            startClientCache();
+            warmKnownPlayerFilter();
+            replayJournal();
+            return true;
+        } catch (JedisConnectionException | JedisClusterOperationException e) {
+            breaker.trip("connection failed");
             logger.warning("Failed to connect to Redis: " + e.getMessage());
             logger.warning("Falling back to local cache for first join detection");
             return false;
         } catch (Exception e) {
-            redisAvailable = false;
+            breaker.trip("initialization failed");
             logger.error("Error initializing Redis connection", e);
             logger.warning("Falling back to local cache for first join detection");
             return false;
         }
     }
 
+    /**
+     * Opens the embedded store. Redis, the local index and the known player filter are
+     * not used, since the store is already local and holds every player in memory.
+     *
+     * @return true if the store was opened
+     */
+    private boolean initEmbedded() {
+        if (store != null) {
+            return true;
+        }
+
+        File storeFile = new File(plugin.getDataFolder(), Constants.Files.FIRST_JOIN_STORE_FILE);
+        try {
+            if (!plugin.getDataFolder().exists() && !plugin.getDataFolder().mkdirs()) {
+                logger.warning("Failed to create plugin directory");
+            }
+
+            long start = System.currentTimeMillis();
+            EmbeddedFirstJoinStore embeddedStore = new EmbeddedFirstJoinStore(storeFile.toPath(),
+                    plugin.getConfig().getBoolean(Constants.Config.FIRST_JOIN_EMBEDDED_SYNC, true));
+            store = embeddedStore;
+            startBatcher();
+            logger.info("Loaded " + embeddedStore.size() + " first join records from the " + store.describe() +
+                    " in " + (System.currentTimeMillis() - start) + "ms");
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to open embedded first join store, using in-memory cache", e);
+            return false;
+        }
+    }
+
+    /**
+     * Creates the batching lane for first join checks if it does not exist yet
+     */
+    private void startBatcher() {
+        if (batcher == null) {
+            long batchWindow = plugin.getConfig().getLong(Constants.Config.REDIS_BATCH_WINDOW, 5);
+            int batchMaxSize = plugin.getConfig().getInt(Constants.Config.REDIS_BATCH_MAX_SIZE, 128);
+            batcher = new FirstJoinBatcher(this, ioExecutor, logger, batchWindow, batchMaxSize);
+        }
+    }
+
+    /**
+     * Creates a connector for a single Redis server
+     */
+    private RedisConnector createStandaloneConnector() {
+        String host = plugin.getConfig().getString("redis.host", "localhost");
+        int port = plugin.getConfig().getInt("redis.port", 6379);
+        String password = plugin.getConfig().getString("redis.password", "");
+        int timeout = plugin.getConfig().getInt("redis.timeout", 2000);
+
+        return new StandaloneRedisConnector(createPoolConfig(), host, port, timeout, password);
+    }
+
+    /**
+     * Creates a connector that finds the current primary through Redis Sentinel
+     */
+    private RedisConnector createSentinelConnector() {
+        String masterName = plugin.getConfig().getString(Constants.Config.REDIS_SENTINEL_MASTER, "mymaster");
+
+        Set<HostAndPort> sentinels = new LinkedHashSet<>();
+        for (String node : plugin.getConfig().getStringList(Constants.Config.REDIS_SENTINEL_NODES)) {
+            sentinels.add(HostAndPort.from(node.trim()));
+        }
+        if (sentinels.isEmpty()) {
+            throw new IllegalStateException("Sentinel mode requires at least one node in " + Constants.Config.REDIS_SENTINEL_NODES);
+        }
+
+        return new SentinelRedisConnector(masterName, sentinels, createPoolConfig(), createClientConfig(),
+                createClientConfig(plugin.getConfig().getString(Constants.Config.REDIS_SENTINEL_PASSWORD, "")));
+    }
+
+    /**
+     * Creates a connector for a Redis Cluster from the configured seed nodes
+     */
+    private RedisConnector createClusterConnector() {
+        Set<HostAndPort> seeds = new LinkedHashSet<>();
+        for (String node : plugin.getConfig().getStringList(Constants.Config.REDIS_CLUSTER_NODES)) {
+            seeds.add(HostAndPort.from(node.trim()));
+        }
+        if (seeds.isEmpty()) {
+            throw new IllegalStateException("Cluster mode requires at least one node in " + Constants.Config.REDIS_CLUSTER_NODES);
+        }
+
+        // Configure per-node connection pools
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        // Idle connections are validated in the background, so borrowing costs only the real command
+        poolConfig.setTestOnBorrow(false);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setMaxTotal(getPoolSize());
+        poolConfig.setMaxIdle(getPoolSize());
+
+        return new ClusterRedisConnector(seeds, createClientConfig(), poolConfig);
+    }
+
+    /**
+     * Creates the connection pool settings for a single server
+     */
+    private JedisPoolConfig createPoolConfig() {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        // Idle connections are validated in the background, so borrowing costs only the real command
+        poolConfig.setTestOnBorrow(false);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setMaxTotal(getPoolSize());
+        poolConfig.setMaxIdle(getPoolSize());
+        return poolConfig;
+    }
+
+    /**
+     * Creates client settings for data nodes from the configured timeout and password
+     */
+    private JedisClientConfig createClientConfig() {
+        return createClientConfig(plugin.getConfig().getString("redis.password", ""));
+    }
+
+    /**
+     * Creates client settings from the configured timeout and the given password
+     */
+    private JedisClientConfig createClientConfig(String password) {
+        int timeout = plugin.getConfig().getInt("redis.timeout", 2000);
+
+        DefaultJedisClientConfig.Builder clientConfig = DefaultJedisClientConfig.builder()
+                .connectionTimeoutMillis(timeout)
+                .socketTimeoutMillis(timeout);
+        if (password != null && !password.isEmpty()) {
+            clientConfig.password(password);
+        }
+        return clientConfig.build();
+    }
+
+    /**
+     * Points known-player reads at the nearest replica if replica reads are enabled.
+     * Replicas come from Sentinel in sentinel mode and from the config otherwise.
+     */
+    private void startReplicaReads() {
+        if (!plugin.getConfig().getBoolean(Constants.Config.REDIS_REPLICA_READS_ENABLED, false)) {
+            return;
+        }
+        if (connector instanceof ClusterRedisConnector) {
+            logger.warning("Replica reads are not supported in cluster mode, reading from the primaries");
+            return;
+        }
+
+        if (!selectReplica()) {
+            logger.warning("No Redis replica answered, reading from the primary");
+        }
+    }
+
+    /**
+     * Selects a replica again after the one in use was dropped for failing.
+     * Called by the health monitor; stays quiet while no replica answers.
+     */
+    private void reselectReplica() {
+        RedisConnector current = connector;
+        if (current == null || current.isClosed() || current.hasReplica() || current instanceof ClusterRedisConnector
+                || !plugin.getConfig().getBoolean(Constants.Config.REDIS_REPLICA_READS_ENABLED, false)) {
+            return;
+        }
+        selectReplica();
+    }
+
+    /**
+     * Connects to the nearest replica that answers and sends known-player reads to it
+     *
+     * @return true if a replica is now in use
+     */
+    private boolean selectReplica() {
+        List<HostAndPort> candidates = new ArrayList<>();
+        if (connector instanceof SentinelRedisConnector sentinel) {
+            candidates.addAll(sentinel.discoverReplicas());
+        } else {
+            for (String node : plugin.getConfig().getStringList(Constants.Config.REDIS_REPLICA_READS_NODES)) {
+                candidates.add(HostAndPort.from(node.trim()));
+            }
+        }
+
+        ReplicaReader replica = ReplicaReader.nearest(candidates, createPoolConfig(), createClientConfig());
+        if (replica == null) {
+            return false;
+        }
+
+        connector.useReplica(replica);
+        logger.info("Checking known players on replica " + connector.describeReplica());
+        return true;
+    }
+
+    /**
+     * Gets the configured number of pooled connections per Redis server
+     *
+     * @return The pool size
+     */
+    private int getPoolSize() {
+        return plugin.getConfig().getInt(Constants.Config.REDIS_POOL_SIZE, 8);
+    }
+
     /**
      * Checks if the player with the given UUID is joining for the first time.
      * Uses Redis if available, otherwise falls back to local cache.
@@ -82,103 +404,808 @@ public class DataManager {
             return false;
         }
 
-        if (!redisAvailable) {
-            return isFirstJoinLocalCache(uuid);
+        if (knownPlayers != null && knownPlayers.mightContain(uuid)) {
+            return false;
         }
 
-        int attempts = 0;
-        int maxAttempts = 3;
-        while (attempts < maxAttempts) {
-            try (Jedis jedis = jedisPool.getResource()) {
-                String key = "chatgeeks:firstjoin:" + uuid.toString();
+        if (isCachedFirstJoin(uuid)) {
+            return false;
+        }
 
-                // SETNX returns 1 if the key was set (i.e., player is new)
-                long result = jedis.setnx(key, String.valueOf(System.currentTimeMillis()));
+        // A batch of one, with the same circuit breaker and fallback as batched checks
+        return registerFirstJoins(List.of(uuid))[0];
+    }
 
-                // Cache the result locally as well
-                if (result == 1) {
-                    firstJoinCache.put(uuid, System.currentTimeMillis());
-                }
+    /**
+     * Asynchronously checks if the player with the given UUID is joining for the first time.
+     * Concurrent checks are gathered over a short window and sent to Redis as one pipelined batch.
+     *
+     * @param uuid The player's UUID.
+     * @return Future completed with true if this is the first join, false otherwise.
+     */
+    public CompletableFuture<Boolean> isFirstJoinAsync(UUID uuid) {
+        return isFirstJoinAsync(uuid, false);
+    }
+
+    /**
+     * Asynchronously checks if the player with the given UUID is joining for the first time.
+     * Players this server has seen before, and players in the known player filter, are
+     * answered locally; only possible newcomers reach Redis.
+     *
+     * @param uuid The player's UUID.
+     * @param playedBefore Whether this server already has data for the player (see Player#hasPlayedBefore()).
+     * @return Future completed with true if this is the first join, false otherwise.
+     */
+    public CompletableFuture<Boolean> isFirstJoinAsync(UUID uuid, boolean playedBefore) {
+        if (uuid == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        if (playedBefore) {
+            rememberKnownPlayer(uuid);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        if (knownPlayers != null && knownPlayers.mightContain(uuid)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        if (isCachedFirstJoin(uuid)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        if (batcher == null) {
+            return CompletableFuture.completedFuture(isFirstJoinLocalCache(uuid));
+        }
+
+        return batcher.submit(uuid);
+    }
+
+    /**
+     * Asynchronously checks whether a player is certainly a returning player, without
+     * recording anything. Meant for pre-login, when the login may still be refused:
+     * a player looked up here and then turned away is still welcomed on a later join.
+     * A false answer means the player may be new and has to be registered at join.
+     *
+     * @param uuid The player's UUID.
+     * @param playedBefore Whether this server already has data for the player (see OfflinePlayer#hasPlayedBefore()).
+     * @return Future completed with true if the player has joined the network before.
+     */
+    public CompletableFuture<Boolean> isKnownPlayerAsync(UUID uuid, boolean playedBefore) {
+        if (uuid == null || playedBefore) {
+            return CompletableFuture.completedFuture(playedBefore);
+        }
+
+        if (knownPlayers != null && knownPlayers.mightContain(uuid)) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        if (isCachedFirstJoin(uuid)) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        FirstJoinStore current = store;
+        if (current == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!current.isRemote()) {
+            return CompletableFuture.completedFuture(findKnownPlayers(current, List.of(uuid))[0]);
+        }
+
+        return ioExecutor.supply(IoExecutor.Resource.REDIS, () -> findKnownPlayers(current, List.of(uuid))[0]);
+    }
 
-                return result == 1;
-            } catch (JedisConnectionException e) {
-                attempts++;
-                if (attempts >= maxAttempts) {
-                    logger.warning("Redis connection failed after " + maxAttempts +
-                            " attempts, falling back to local cache");
-                    redisAvailable = false;
-                    return isFirstJoinLocalCache(uuid);
+    /**
+     * Looks players up in the store without registering them.
+     * Players that cannot be looked up count as unknown.
+     *
+     * @param current The store to read
+     * @param uuids The UUIDs to look up
+     * @return For each UUID in order, true if the store has a record for it
+     */
+    private boolean[] findKnownPlayers(FirstJoinStore current, List<UUID> uuids) {
+        if (current.isRemote() && !breaker.allowRequest()) {
+            return new boolean[uuids.size()];
+        }
+
+        long start = System.nanoTime();
+        try {
+            boolean[] known = current.contains(uuids);
+            if (current.isRemote()) {
+                breaker.recordSuccess(System.nanoTime() - start);
+            }
+            return known;
+        } catch (JedisConnectionException | JedisClusterOperationException e) {
+            breaker.recordFailure();
+            logger.debug("Redis connection failed during known player lookup: " + e.getMessage());
+        } catch (Exception e) {
+            if (current.isRemote()) {
+                breaker.recordFailure();
+            }
+            logger.error("Error looking up " + uuids.size() + " known players", e);
+        }
+        return new boolean[uuids.size()];
+    }
+
+    /**
+     * Registers a batch of joins with a single pipelined round trip, or a single write
+     * to the embedded store. Falls back to the local cache if the store is unavailable.
+     *
+     * @param uuids The UUIDs of the joining players, duplicates allowed
+     * @return For each UUID in order, true if it was that player's first join
+     */
+    boolean[] registerFirstJoins(List<UUID> uuids) {
+        boolean[] results = new boolean[uuids.size()];
+        FirstJoinStore current = store;
+
+        if (current != null && (!current.isRemote() || breaker.allowRequest())) {
+            long start = System.nanoTime();
+            try {
+                long now = System.currentTimeMillis();
+                boolean[] added = current.register(uuids, now);
+                if (current.isRemote()) {
+                    breaker.recordSuccess(System.nanoTime() - start);
                 }
 
-                // Wait before retrying
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    return isFirstJoinLocalCache(uuid);
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = added[i];
+                    if (results[i]) {
+                        firstJoinCache.put(uuids.get(i), now);
+                    }
+                    rememberKnownPlayer(uuids.get(i));
                 }
+                return results;
+            } catch (JedisConnectionException | JedisClusterOperationException e) {
+                breaker.recordFailure();
+                logger.debug("Redis connection failed during batched first join check: " + e.getMessage());
             } catch (Exception e) {
-                logger.error("Error checking first join for " + uuid, e);
-                return isFirstJoinLocalCache(uuid);
+                // Every call the breaker let through has to report back, or a half-open breaker runs out of trial permits
+                if (current.isRemote()) {
+                    breaker.recordFailure();
+                }
+                logger.error("Error checking first join for a batch of " + uuids.size() + " players", e);
             }
         }
 
-        // Should never reach here, but just in case
-        return isFirstJoinLocalCache(uuid);
+        for (int i = 0; i < results.length; i++) {
+            results[i] = isFirstJoinLocalCache(uuids.get(i));
+        }
+        return results;
     }
 
     /**
-     * Fallback method to check first join using local cache
+     * Checks the client-side cache for a player's first join key
      *
      * @param uuid The player's UUID
-     * @return true if this is the first join according to local cache
+     * @return true if the key is known to exist in Redis
+     */
+    private boolean isCachedFirstJoin(UUID uuid) {
+        ClientSideCache cache = clientCache;
+        return cache != null && cache.get(Constants.Redis.FIRSTJOIN_PREFIX + uuid) != null;
+    }
+
+    /**
+     * Starts the client-side cache on the current connector if it is enabled.
+     * A failure only disables the cache; lookups keep going to Redis.
+     */
+    private synchronized void startClientCache() {
+        if (!plugin.getConfig().getBoolean(Constants.Config.REDIS_CLIENT_CACHE_ENABLED, false)) {
+            return;
+        }
+
+        // Any join invalidates a whole bucket, so caching buckets would mostly churn
+        if (buckets != null) {
+            logger.warning("Redis client-side cache only applies to the keys layout, leaving it disabled");
+            return;
+        }
+
+        ClientSideCache cache = openClientCache();
+        if (cache != null) {
+            clientCache = cache;
+        }
+    }
+
+    /**
+     * Replaces a client-side cache whose invalidation stream was lost.
+     * Called by the health monitor; the lost cache stays in place, bypassed, until a new one starts.
+     */
+    private synchronized void restartClientCache() {
+        ClientSideCache lost = clientCache;
+        if (lost == null || lost.isActive() || connector == null || connector.isClosed()) {
+            return;
+        }
+
+        ClientSideCache cache = openClientCache();
+        if (cache != null) {
+            clientCache = cache;
+            lost.close();
+            logger.info("Redis client-side cache restarted after its invalidation stream was lost");
+        }
+    }
+
+    /**
+     * Starts a client-side cache on the current connector
+     *
+     * @return The running cache, or null if it could not be started
+     */
+    private ClientSideCache openClientCache() {
+        ClientSideCache cache = new ClientSideCache(logger, ioExecutor, Constants.Redis.FIRSTJOIN_PREFIX,
+                plugin.getConfig().getInt(Constants.Config.REDIS_CLIENT_CACHE_MAX_ENTRIES, 100_000));
+        try {
+            cache.start(connector.openTrackingConnections());
+            logger.debug("Client-side cache tracking " + Constants.Redis.FIRSTJOIN_PREFIX + "* on " + connector.describe());
+            return cache;
+        } catch (Exception e) {
+            cache.close();
+            logger.warning("Failed to enable Redis client-side cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stops the client-side cache, logging how well it did
+     */
+    private synchronized void closeClientCache() {
+        ClientSideCache cache = clientCache;
+        if (cache == null) {
+            return;
+        }
+
+        clientCache = null;
+        logger.debug("Client-side cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses, " +
+                cache.getInvalidations() + " invalidations");
+        cache.close();
+    }
+
+    /**
+     * Reconnects in the background once the circuit breaker has been open long enough.
+     * Joins never wait on this; they keep using local data until the breaker closes again.
+     */
+    private void scheduleReconnect() {
+        if (shuttingDown || !breaker.isReconnectDue() || !reconnecting.compareAndSet(false, true)) {
+            return;
+        }
+
+        // The reconnect replaces the pool the REDIS permits guard, so it takes none; the tasks it starts take their own
+        ioExecutor.supplyLoop(() -> {
+            logger.debug("Attempting to reconnect to Redis");
+            return reconnect();
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.error("Error reconnecting to Redis", error);
+            }
+            reconnecting.set(false);
+        });
+    }
+
+    /**
+     * Fallback method to check first join using the local index,
+     * or the in-memory cache if the index is unavailable
+     *
+     * @param uuid The player's UUID
+     * @return true if this is the first join according to local data
      */
     private boolean isFirstJoinLocalCache(UUID uuid) {
-        if (firstJoinCache.containsKey(uuid)) {
+        MappedFirstJoinIndex index = localIndex;
+        if (index != null && isLocalIndexWritable(index)) {
+            try {
+                boolean added = index.add(uuid);
+                if (knownPlayers != null) {
+                    knownPlayers.put(uuid);
+                }
+                if (added) {
+                    journalFirstJoin(uuid);
+                }
+                return added;
+            } catch (IOException e) {
+                logger.error("Failed to update first join index, using in-memory cache", e);
+            }
+        } else if (index != null && index.contains(uuid)) {
+            // A full index still knows everyone it holds
+            return false;
+        }
+
+        if (firstJoinCache.get(uuid) != null) {
             return false;
         }
 
         firstJoinCache.put(uuid, System.currentTimeMillis());
+        rememberKnownPlayer(uuid);
+        journalFirstJoin(uuid);
         return true;
     }
 
     /**
-     * Shuts down the Redis connection pool.
+     * Records a first join decided without Redis, so it can be written back on recovery
+     *
+     * @param uuid The player's UUID
      */
-    public void shutdown() {
-        if (jedisPool != null && !jedisPool.isClosed()) {
-            jedisPool.close();
-            logger.info("Redis connection closed");
+    private void journalFirstJoin(UUID uuid) {
+        if (journal == null) {
+            return;
+        }
+
+        try {
+            journal.append(uuid, System.currentTimeMillis());
+        } catch (IOException e) {
+            logger.warning("Failed to journal first join of " + uuid + ": " + e.getMessage());
         }
     }
 
     /**
-     * Checks if Redis is available
+     * Records a player in the known player filter
      *
-     * @return true if Redis is connected and available
+     * @param uuid The player's UUID
      */
-    public boolean isRedisAvailable() {
-        if (!redisAvailable || jedisPool == null || jedisPool.isClosed()) {
-            return false;
+    private void rememberKnownPlayer(UUID uuid) {
+        if (knownPlayers != null) {
+            knownPlayers.put(uuid);
         }
 
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.ping();
+        // Mirror into the local index so an outage does not re-welcome returning players
+        MappedFirstJoinIndex index = localIndex;
+        if (index != null && isLocalIndexWritable(index)) {
+            try {
+                index.add(uuid);
+            } catch (IOException e) {
+                logger.warning("Failed to record " + uuid + " in first join index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Checks whether the local index can take more players, warning once when it fills up
+     *
+     * @param index The local index
+     * @return false once the index is full
+     */
+    private boolean isLocalIndexWritable(MappedFirstJoinIndex index) {
+        if (!index.isFull()) {
             return true;
-        } catch (Exception e) {
-            redisAvailable = false;
-            return false;
+        }
+
+        if (localIndexFull.compareAndSet(false, true)) {
+            logger.warning("First join index is full with " + index.size() +
+                    " players and is no longer written; during an outage, players it does not hold use the in-memory cache");
+        }
+        return false;
+    }
+
+    /**
+     * Opens the memory-mapped first join index in the plugin data folder
+     */
+    private void openLocalIndex() {
+        File indexFile = new File(plugin.getDataFolder(), Constants.Files.FIRST_JOIN_INDEX_FILE);
+
+        try {
+            if (!plugin.getDataFolder().exists() && !plugin.getDataFolder().mkdirs()) {
+                logger.warning("Failed to create plugin directory");
+            }
+            localIndex = new MappedFirstJoinIndex(indexFile.toPath());
+            logger.info("Loaded first join index with " + localIndex.size() + " players");
+        } catch (IOException e) {
+            localIndex = null;
+            logger.error("Failed to open first join index, falling back to in-memory cache", e);
         }
     }
 
+    /**
+     * Opens the outage journal in the plugin's data folder
+     */
+    private void openJournal() {
+        File journalFile = new File(plugin.getDataFolder(), Constants.Files.FIRST_JOIN_JOURNAL_FILE);
+
+        try {
+            journal = new OutageJournal(journalFile.toPath());
+            long pending = journal.size();
+            if (pending > 0) {
+                logger.info("Found " + pending + " first joins recorded during a Redis outage");
+            }
+        } catch (IOException e) {
+            journal = null;
+            logger.error("Failed to open first join journal, outage joins will not be written back", e);
+        }
+    }
+
+    /**
+     * Writes first joins recorded during an outage back to Redis in the background.
+     * Registration keeps any record another server made in the meantime.
+     */
+    private void replayJournal() {
+        if (journal == null || (journalReplay != null && !journalReplay.isDone())) {
+            return;
+        }
+
+        // One permit per batch, so a long journal does not keep a permit from joins the whole time
+        journalReplay = ioExecutor.<Void>supplyLoop(() -> {
+            try {
+                if (journal.size() == 0) {
+                    return null;
+                }
+                long replayed = journal.replay(entries -> ioExecutor.withPermitUnchecked(IoExecutor.Resource.REDIS, () -> {
+                    writeJournalBatch(entries);
+                    return null;
+                }));
+                logger.info("Wrote " + replayed + " first joins from the outage journal back to Redis");
+            } catch (JedisConnectionException | JedisClusterOperationException e) {
+                logger.warning("Outage journal replay interrupted, will retry after the next reconnect: " + e.getMessage());
+            } catch (IOException e) {
+                logger.error("Failed to replay first join journal", e);
+            }
+            return null;
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.error("Error replaying first join journal", error);
+            }
+        });
+    }
+
+    /**
+     * Writes one batch of journaled first joins through the store, so replayed players get
+     * the same metadata and counters as live ones. Each player keeps the time they joined,
+     * so entries are registered in groups that share a timestamp.
+     */
+    private void writeJournalBatch(List<OutageJournal.Entry> entries) {
+        Map<Long, List<UUID>> byTimestamp = new LinkedHashMap<>();
+        for (OutageJournal.Entry entry : entries) {
+            byTimestamp.computeIfAbsent(entry.timestamp(), timestamp -> new ArrayList<>()).add(entry.uuid());
+        }
+
+        try {
+            for (Map.Entry<Long, List<UUID>> group : byTimestamp.entrySet()) {
+                store.register(group.getValue(), group.getKey());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams the first join keyspace into the known player filter and the local index with SCAN.
+     * Runs once in the background; until it finishes, unknown players simply go to Redis.
+     */
+    private void warmKnownPlayerFilter() {
+        if (knownPlayers == null || filterWarmup != null) {
+            return;
+        }
+
+        filterWarmup = ioExecutor.supplyLoop(() -> {
+            long start = System.currentTimeMillis();
+            AtomicLong loaded = new AtomicLong();
+
+            try {
+                // In cluster mode every primary holds part of the keyspace
+                RedisConnector current = connector;
+                for (HostAndPort node : current.primaryNodes()) {
+                    if (buckets != null) {
+                        loadBucketedPlayers(current, node, loaded);
+                    }
+                    if (buckets == null || !legacyKeysMigrated) {
+                        loadKeyedPlayers(current, node, loaded);
+                    }
+                }
+
+                logger.info("Loaded " + loaded.get() + " known players into first join filter in " +
+                        (System.currentTimeMillis() - start) + "ms");
+            } catch (Exception e) {
+                // Unknown players still fall through to Redis, so a partial filter is safe
+                logger.warning("Known player filter warm-up stopped after " + loaded.get() + " players: " + e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Adds players stored as one key each to the known player filter and local index
+     */
+    private void loadKeyedPlayers(RedisConnector current, HostAndPort node, AtomicLong loaded) {
+        int prefixLength = Constants.Redis.FIRSTJOIN_PREFIX.length();
+        ScanParams params = new ScanParams()
+                .match(Constants.Redis.FIRSTJOIN_PREFIX + "*")
+                .count(1000);
+
+        String cursor = ScanParams.SCAN_POINTER_START;
+        do {
+            // The connection is borrowed per page under its permit, so joins are not held up for the whole scan
+            String pageCursor = cursor;
+            ScanResult<String> page = ioExecutor.withPermitUnchecked(IoExecutor.Resource.REDIS, () -> {
+                try (Jedis jedis = current.getPrimaryResource(node)) {
+                    return jedis.scan(pageCursor, params);
+                }
+            });
+            for (String key : page.getResult()) {
+                try {
+                    rememberKnownPlayer(UUID.fromString(key.substring(prefixLength)));
+                    loaded.incrementAndGet();
+                } catch (IllegalArgumentException ignored) {
+                    // Not a player key
+                }
+            }
+            cursor = page.getCursor();
+        } while (!shuttingDown && !ScanParams.SCAN_POINTER_START.equals(cursor));
+    }
+
+    /**
+     * Adds players stored in bucket hashes to the known player filter and local index, one pipeline per SCAN page
+     */
+    private void loadBucketedPlayers(RedisConnector current, HostAndPort node, AtomicLong loaded) {
+        ScanParams params = new ScanParams()
+                .match(FirstJoinBuckets.bucketPattern())
+                .count(1000);
+
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        do {
+            // The connection is borrowed per page under its permit, so joins are not held up for the whole scan
+            byte[] pageCursor = cursor;
+            List<Response<Set<byte[]>>> pages = new ArrayList<>();
+            ScanResult<byte[]> page = ioExecutor.withPermitUnchecked(IoExecutor.Resource.REDIS, () -> {
+                try (Jedis jedis = current.getPrimaryResource(node)) {
+                    ScanResult<byte[]> result = jedis.scan(pageCursor, params);
+                    Pipeline pipeline = jedis.pipelined();
+                    for (byte[] key : result.getResult()) {
+                        pages.add(pipeline.hkeys(key));
+                    }
+                    pipeline.sync();
+                    return result;
+                }
+            });
+
+            for (Response<Set<byte[]>> fields : pages) {
+                for (byte[] field : fields.get()) {
+                    UUID uuid = FirstJoinBuckets.uuid(field);
+                    if (uuid != null) {
+                        rememberKnownPlayer(uuid);
+                        loaded.incrementAndGet();
+                    }
+                }
+            }
+            cursor = page.getCursorAsBytes();
+        } while (!shuttingDown && !Arrays.equals(ScanParams.SCAN_POINTER_START_BINARY, cursor));
+    }
+
+    /**
+     * Moves first join records from per-player keys into buckets in the background.
+     * Joins keep working throughout; players not yet moved are found under their old key.
+     *
+     * @param progress Called from the migration thread with the running total
+     * @return Future completed with the number of records moved
+     */
+    public CompletableFuture<Long> migrateLegacyFirstJoins(LongConsumer progress) {
+        if (buckets == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Set " + Constants.Config.FIRST_JOIN_LAYOUT + " to buckets before migrating"));
+        }
+        if (!isRedisAvailable()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Redis is not available"));
+        }
+        if (!migrating.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A migration is already running"));
+        }
+
+        return ioExecutor.supplyLoop(() -> {
+            long migrated = new FirstJoinMigration(connector, buckets, ioExecutor).run(progress, () -> shuttingDown);
+            if (!shuttingDown) {
+                legacyKeysMigrated = true;
+            }
+            return migrated;
+        }).whenComplete((migrated, error) -> migrating.set(false));
+    }
+
+    /**
+     * Records every player the server already knows about, so they are not welcomed as
+     * newcomers after the plugin is installed on an established server. Runs in the background.
+     *
+     * @param userCache The server's usercache.json
+     * @param playerData The main world's playerdata directory
+     * @param offlinePlayers Further players to import with their first played time, 0 if unknown
+     * @param progress Called from the import thread with the number of UUIDs read so far
+     * @return Future completed with the number of UUIDs read and records created
+     */
+    public CompletableFuture<FirstJoinImport.Result> importExistingPlayers(File userCache, File playerData,
+                                                                          Map<UUID, Long> offlinePlayers,
+                                                                          LongConsumer progress) {
+        if (store == null || (store.isRemote() && !isRedisAvailable())) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The first join store is not available"));
+        }
+        if (!importing.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("An import is already running"));
+        }
+
+        // One permit per batch, so joins are not held up for the whole import. Imported players
+        // are written without the registration metadata, so they are not counted as new joins
+        IoExecutor.Resource resource = embedded ? IoExecutor.Resource.FILES : IoExecutor.Resource.REDIS;
+        FirstJoinImport playerImport = new FirstJoinImport((uuids, timestamps) -> ioExecutor.withPermitUnchecked(resource, () -> {
+            try {
+                boolean[] added = store.importRecords(uuids, timestamps);
+                for (UUID uuid : uuids) {
+                    rememberKnownPlayer(uuid);
+                }
+                return added;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+
+        return ioExecutor.supplyLoop(
+                () -> playerImport.run(userCache, playerData, offlinePlayers, progress, () -> shuttingDown))
+                .whenComplete((result, error) -> importing.set(false));
+    }
+
+    /**
+     * Shuts down the Redis connection pools.
+     */
+    public void shutdown() {
+        shuttingDown = true;
+
+        if (reconnectTask != null) {
+            reconnectTask.cancel();
+            reconnectTask = null;
+        }
+
+        // Let the filter warm-up finish its current page before the pool and index close
+        if (filterWarmup != null) {
+            try {
+                filterWarmup.get(plugin.getConfig().getInt("redis.timeout", 2000), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // Already logged by the executor, or still running on a closed pool
+            }
+        }
+
+        // Flush pending checks while the pool is still open
+        if (batcher != null) {
+            batcher.shutdown(plugin.getConfig().getInt("redis.timeout", 2000));
+            batcher = null;
+        }
+
+        // The Redis store only borrows the connector, closed below
+        if (store != null && !store.isRemote()) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                logger.error("Failed to close " + store.describe(), e);
+            }
+        }
+
+        // Whatever the replay has not reached stays in the journal for the next start
+        if (journalReplay != null) {
+            try {
+                journalReplay.get(plugin.getConfig().getInt("redis.timeout", 2000), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // Already logged by the executor, or still running on a closed pool
+            }
+        }
+
+        if (healthMonitor != null) {
+            healthMonitor.shutdown(plugin.getConfig().getInt("redis.timeout", 2000));
+            healthMonitor = null;
+        }
+
+        closeClientCache();
+
+        if (connector != null && !connector.isClosed()) {
+            connector.close();
+            logger.info("Redis connection closed");
+        }
+
+        SegmentedLruCache.Stats stats = firstJoinCache.stats();
+        logger.debug("First join cache: " + stats.size() + " players, " + stats.hits() + " hits, " +
+                stats.misses() + " misses, " + stats.evictions() + " evictions, " + stats.expirations() + " expirations");
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.error("Failed to close first join journal", e);
+            }
+            journal = null;
+        }
+
+        if (localIndex != null) {
+            try {
+                localIndex.close();
+            } catch (IOException e) {
+                logger.error("Failed to close first join index", e);
+            }
+            localIndex = null;
+        }
+    }
+
+    /**
+     * Checks if Redis is available. Reads the circuit breaker state and the last
+     * background health check, so it is free to call.
+     *
+     * @return true if Redis is connected, passing health checks and the circuit breaker is not open
+     */
+    public boolean isRedisAvailable() {
+        RedisConnector current = connector;
+        RedisHealthMonitor monitor = healthMonitor;
+        return current != null && !current.isClosed()
+                && (monitor == null || monitor.isAvailable())
+                && breaker.getState() != RedisCircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Checks whether first join records are kept in Redis rather than the embedded store
+     *
+     * @return true with the Redis backend
+     */
+    public boolean usesRedis() {
+        return !embedded;
+    }
+
+    /**
+     * Describes where first join records are stored
+     *
+     * @return A short description, or null if no store could be opened
+     */
+    public String describeStore() {
+        FirstJoinStore current = store;
+        return current != null ? current.describe() : null;
+    }
+
+    /**
+     * Gets the latest Redis health check result and round-trip percentiles
+     *
+     * @return The health snapshot, or null if Redis was never reached
+     */
+    public RedisHealthMonitor.Snapshot getRedisHealth() {
+        RedisHealthMonitor monitor = healthMonitor;
+        return monitor != null ? monitor.snapshot() : null;
+    }
+
+    /**
+     * Gets the number of first join lookups answered by the client-side cache
+     *
+     * @return Cache hits, or 0 if the cache is disabled
+     */
+    public long getClientCacheHits() {
+        ClientSideCache cache = clientCache;
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    /**
+     * Gets the number of first join lookups the client-side cache could not answer
+     *
+     * @return Cache misses, or 0 if the cache is disabled
+     */
+    public long getClientCacheMisses() {
+        ClientSideCache cache = clientCache;
+        return cache != null ? cache.getMisses() : 0;
+    }
+
+    /**
+     * Drops expired players from the in-memory first join cache
+     *
+     * @return Number of entries removed
+     */
+    public int cleanUpLocalCache() {
+        return firstJoinCache.cleanUp();
+    }
+
+    /**
+     * Gets statistics for the in-memory first join cache
+     *
+     * @return A snapshot of its counters
+     */
+    public SegmentedLruCache.Stats getLocalCacheStats() {
+        return firstJoinCache.stats();
+    }
+
     /**
      * Attempts to reconnect to Redis if the connection was lost
      *
      * @return true if reconnection was successful
      */
     public boolean reconnect() {
-        if (jedisPool != null && !jedisPool.isClosed()) {
-            jedisPool.close();
+        // Invalidations may have been missed while disconnected, so start from an empty cache
+        closeClientCache();
+
+        if (connector != null && !connector.isClosed()) {
+            connector.close();
         }
 
         return init();
@@ -0,0 +1,219 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.util.UuidLongMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntToLongFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * First join store kept on local disk, for servers that do not run Redis.
+ * Records are only ever appended to a single log file, and each batch is written with
+ * one call and optionally one fsync, so a burst of joins costs one disk flush. The log is
+ * read back into memory when the store opens.
+ *
+ * <p>Each record is 28 bytes: the most and least significant bits of the UUID, the join
+ * time in epoch milliseconds and a CRC32C of those 24 bytes. Opening the log stops at
+ * the first torn or corrupt record and truncates it, so a crash mid-write loses at most
+ * the batch being written. A player is recorded at most once and records are never
+ * changed, so the log holds no garbage and never needs compacting.</p>
+ */
+class EmbeddedFirstJoinStore implements FirstJoinStore {
+
+    private static final int RECORD_SIZE = 28;
+    private static final int PAYLOAD_SIZE = 24;
+    private static final int READ_BUFFER_RECORDS = 4096;
+
+    private final Path path;
+    private final boolean sync;
+    private final FileChannel channel;
+    private final UuidLongMap firstJoins = new UuidLongMap();
+    private final CRC32C crc = new CRC32C();
+
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(RECORD_SIZE * 128);
+
+    /**
+     * Opens the store, creating the log if needed
+     *
+     * @param path The log file
+     * @param sync Whether to fsync after every batch; without it a power loss can drop the latest joins
+     * @throws IOException if the log cannot be opened or read
+     */
+    EmbeddedFirstJoinStore(Path path, boolean sync) throws IOException {
+        this.path = path;
+        this.sync = sync;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        load();
+    }
+
+    /**
+     * Reads every valid record into memory and truncates anything after the last one
+     */
+    private void load() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * READ_BUFFER_RECORDS);
+        long position = 0;
+
+        read:
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+
+            while (buffer.remaining() >= RECORD_SIZE) {
+                int start = buffer.position();
+                long most = buffer.getLong();
+                long least = buffer.getLong();
+                long timestamp = buffer.getLong();
+                int checksum = buffer.getInt();
+
+                if (checksum(buffer, start) != checksum) {
+                    break read;
+                }
+
+                firstJoins.putIfAbsent(most, least, timestamp);
+                position += RECORD_SIZE;
+            }
+
+            if (read < RECORD_SIZE) {
+                // Torn record at the end
+                break;
+            }
+        }
+
+        if (channel.size() > position) {
+            channel.truncate(position);
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public boolean[] register(List<UUID> uuids, long timestamp) throws IOException {
+        return write(uuids, index -> timestamp);
+    }
+
+    @Override
+    public boolean[] importRecords(List<UUID> uuids, long[] timestamps) throws IOException {
+        // The log holds no metadata, so an import is an ordinary write with a time per player
+        return write(uuids, index -> timestamps[index]);
+    }
+
+    private synchronized boolean[] write(List<UUID> uuids, IntToLongFunction timestampOf) throws IOException {
+        boolean[] added = new boolean[uuids.size()];
+        List<UUID> created = new ArrayList<>();
+        long[] createdAt = new long[uuids.size()];
+
+        for (int i = 0; i < added.length; i++) {
+            UUID uuid = uuids.get(i);
+            long timestamp = timestampOf.applyAsLong(i);
+            if (firstJoins.putIfAbsent(uuid, timestamp)) {
+                added[i] = true;
+                createdAt[created.size()] = timestamp;
+                created.add(uuid);
+            }
+        }
+
+        if (created.isEmpty()) {
+            return added;
+        }
+
+        long end = channel.size();
+        try {
+            append(created, createdAt, end);
+        } catch (IOException e) {
+            // Forget the batch and cut off any partial write, so the next batch starts on a record boundary
+            for (UUID uuid : created) {
+                firstJoins.remove(uuid);
+            }
+            try {
+                channel.truncate(end);
+            } catch (IOException ignored) {
+                // Reopening stops at the torn record anyway
+            }
+            throw e;
+        }
+
+        return added;
+    }
+
+    @Override
+    public boolean[] contains(List<UUID> uuids) {
+        boolean[] known = new boolean[uuids.size()];
+        for (int i = 0; i < known.length; i++) {
+            known[i] = firstJoins.containsKey(uuids.get(i));
+        }
+        return known;
+    }
+
+    private void append(List<UUID> uuids, long[] timestamps, long position) throws IOException {
+        int required = uuids.size() * RECORD_SIZE;
+        if (writeBuffer.capacity() < required) {
+            writeBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(required - 1) << 1);
+        }
+
+        writeBuffer.clear();
+        for (int i = 0; i < uuids.size(); i++) {
+            UUID uuid = uuids.get(i);
+            int start = writeBuffer.position();
+            writeBuffer.putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .putLong(timestamps[i]);
+            writeBuffer.putInt(checksum(writeBuffer, start));
+        }
+        writeBuffer.flip();
+
+        while (writeBuffer.hasRemaining()) {
+            position += channel.write(writeBuffer, position);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Computes the CRC32C of the 24-byte payload starting at the given position
+     */
+    private int checksum(ByteBuffer buffer, int start) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start).limit(start + PAYLOAD_SIZE);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Gets the number of players recorded
+     *
+     * @return The record count
+     */
+    synchronized int size() {
+        return firstJoins.size();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public String describe() {
+        return "embedded store at " + path.getFileName();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
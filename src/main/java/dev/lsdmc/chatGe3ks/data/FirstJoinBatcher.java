@@ -0,0 +1,169 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers concurrent first-join checks into pipelined Redis batches.
+ * All checks go through a single I/O lane, so a join storm costs a handful
+ * of round trips instead of one per player. The lane is a virtual thread on the
+ * plugin's I/O executor and takes a Redis permit for each flush.
+ */
+class FirstJoinBatcher {
+
+    private final DataManager dataManager;
+    private final IoExecutor ioExecutor;
+    private final LoggerUtils logger;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final LinkedBlockingQueue<PendingCheck> queue = new LinkedBlockingQueue<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts a new batcher
+     *
+     * @param dataManager The data manager that executes the batches
+     * @param ioExecutor The executor that runs the I/O lane
+     * @param logger The logger to report errors to
+     * @param windowMillis How long to wait for more checks before flushing a batch
+     * @param maxBatchSize Maximum number of checks per batch
+     */
+    FirstJoinBatcher(DataManager dataManager, IoExecutor ioExecutor, LoggerUtils logger, long windowMillis, int maxBatchSize) {
+        this.dataManager = dataManager;
+        this.ioExecutor = ioExecutor;
+        this.logger = logger;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+
+        if (!ioExecutor.startLoop(this::runLoop)) {
+            running = false;
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Queues a first-join check for the next batch
+     *
+     * @param uuid The player's UUID
+     * @return Future completed with true if this is the player's first join
+     */
+    CompletableFuture<Boolean> submit(UUID uuid) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("First join batcher has been shut down"));
+            return future;
+        }
+
+        queue.offer(new PendingCheck(uuid, future));
+        return future;
+    }
+
+    /**
+     * Stops accepting checks, flushes everything still queued and waits for the I/O lane to finish
+     *
+     * @param timeoutMillis Maximum time to wait for the queue to drain
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+
+        try {
+            stopped.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything left over could not be flushed in time
+        PendingCheck check;
+        while ((check = queue.poll()) != null) {
+            check.future().completeExceptionally(new IllegalStateException("First join batcher has been shut down"));
+        }
+    }
+
+    private void runLoop() {
+        try {
+            gatherAndFlush();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private void gatherAndFlush() {
+        List<PendingCheck> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCheck first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Keep gathering until the window closes or the batch is full
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+
+                    PendingCheck next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Flush what was gathered; anything still queued is failed by shutdown()
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Unexpected error in first join I/O lane", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingCheck> batch) {
+        List<UUID> uuids = new ArrayList<>(batch.size());
+        for (PendingCheck check : batch) {
+            uuids.add(check.uuid());
+        }
+
+        try {
+            boolean[] results = ioExecutor.withPermit(IoExecutor.Resource.REDIS, () -> dataManager.registerFirstJoins(uuids));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(results[i]);
+            }
+
+            if (batch.size() > 1) {
+                logger.debug("Flushed first join batch of " + batch.size() + " checks");
+            }
+        } catch (Exception e) {
+            logger.error("Error flushing first join batch of " + batch.size() + " checks", e);
+            for (PendingCheck check : batch) {
+                check.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record PendingCheck(UUID uuid, CompletableFuture<Boolean> future) {
+    }
+}
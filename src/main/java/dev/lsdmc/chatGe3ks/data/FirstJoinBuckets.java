@@ -0,0 +1,122 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.util.Constants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compact Redis layout for first join records.
+ * Players are grouped into hashes named after the leading bits of their UUID, so each
+ * hash stays small enough for Redis to keep it listpack-encoded. Fields are the raw
+ * 16-byte UUID and values are the join time in milliseconds as an unsigned varint.
+ */
+final class FirstJoinBuckets {
+
+    private static final byte[] KEY_PREFIX = Constants.Redis.FIRSTJOIN_BUCKET_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final int bucketBits;
+    private final int hexDigits;
+
+    /**
+     * Creates a layout with 2^bucketBits buckets
+     *
+     * @param bucketBits Number of leading UUID bits that pick the bucket
+     */
+    FirstJoinBuckets(int bucketBits) {
+        this.bucketBits = Math.max(1, Math.min(32, bucketBits));
+        this.hexDigits = (this.bucketBits + 3) / 4;
+    }
+
+    /**
+     * Gets the key of the hash holding a player's record
+     *
+     * @param uuid The player's UUID
+     * @return The bucket key, e.g. chatgeeks:fj:3fa2
+     */
+    byte[] bucketKey(UUID uuid) {
+        long bucket = uuid.getMostSignificantBits() >>> (64 - bucketBits);
+
+        byte[] key = new byte[KEY_PREFIX.length + hexDigits];
+        System.arraycopy(KEY_PREFIX, 0, key, 0, KEY_PREFIX.length);
+        for (int i = key.length - 1; i >= KEY_PREFIX.length; i--) {
+            key[i] = HEX[(int) (bucket & 0xF)];
+            bucket >>>= 4;
+        }
+        return key;
+    }
+
+    /**
+     * Gets the hash pattern matching every bucket, for SCAN
+     *
+     * @return The bucket key pattern
+     */
+    static String bucketPattern() {
+        return Constants.Redis.FIRSTJOIN_BUCKET_PREFIX + "*";
+    }
+
+    /**
+     * Encodes a UUID as a 16-byte big-endian field
+     *
+     * @param uuid The player's UUID
+     * @return The hash field
+     */
+    static byte[] field(UUID uuid) {
+        byte[] field = new byte[16];
+        writeLong(field, 0, uuid.getMostSignificantBits());
+        writeLong(field, 8, uuid.getLeastSignificantBits());
+        return field;
+    }
+
+    /**
+     * Decodes a hash field back into a UUID
+     *
+     * @param field The hash field
+     * @return The UUID, or null if the field is not 16 bytes
+     */
+    static UUID uuid(byte[] field) {
+        if (field == null || field.length != 16) {
+            return null;
+        }
+        return new UUID(readLong(field, 0), readLong(field, 8));
+    }
+
+    /**
+     * Encodes a timestamp as an unsigned LEB128 varint; current epoch millis take 6 bytes
+     *
+     * @param timestamp Milliseconds since the epoch
+     * @return The encoded value
+     */
+    static byte[] encodeTimestamp(long timestamp) {
+        long value = Math.max(0, timestamp);
+
+        int length = 1;
+        for (long rest = value >>> 7; rest != 0; rest >>>= 7) {
+            length++;
+        }
+
+        byte[] encoded = new byte[length];
+        for (int i = 0; i < length - 1; i++) {
+            encoded[i] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        encoded[length - 1] = (byte) value;
+        return encoded;
+    }
+
+    private static void writeLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
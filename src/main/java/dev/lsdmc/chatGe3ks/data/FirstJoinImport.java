@@ -0,0 +1,188 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Records players the server already knew about before the plugin was installed, so they
+ * are not welcomed as newcomers on their next join. UUIDs are streamed from usercache.json
+ * and the playerdata directory one at a time and written in fixed-size pipelined batches,
+ * so memory use does not grow with the number of players. Writes never overwrite an
+ * existing record, which makes the import safe to rerun.
+ *
+ * <p>Each player is recorded with the best first join time available: the creation time
+ * of their playerdata file, or the first played time the server reports. Playerdata is
+ * read before usercache.json, so players found in both keep their file time; players
+ * with no time at all are recorded at the time the import started.</p>
+ */
+public class FirstJoinImport {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Outcome of an import
+     *
+     * @param scanned UUIDs read from every source, including duplicates across sources
+     * @param imported Players that had no first join record before
+     */
+    public record Result(long scanned, long imported) {
+    }
+
+    private final BiFunction<List<UUID>, long[], boolean[]> writer;
+    private final List<UUID> batch = new ArrayList<>(BATCH_SIZE);
+    private final long[] batchTimestamps = new long[BATCH_SIZE];
+
+    private LongConsumer progress;
+    private long startedAt;
+    private long scanned;
+    private long imported;
+
+    /**
+     * Creates a new import
+     *
+     * @param writer Writes a batch of players with their first join times, returning for each whether its record was created
+     */
+    FirstJoinImport(BiFunction<List<UUID>, long[], boolean[]> writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Runs the import on the calling thread
+     *
+     * @param userCache The server's usercache.json, skipped if missing
+     * @param playerData The main world's playerdata directory, skipped if missing
+     * @param offlinePlayers Further players to import with their first played time, 0 if unknown,
+     *                       e.g. from the server's offline player list
+     * @param progress Called with the number of UUIDs read after each batch
+     * @param stopped Checked between batches; returning true stops early
+     * @return The number of UUIDs read and records created
+     * @throws IOException If a source could not be read
+     */
+    Result run(File userCache, File playerData, Map<UUID, Long> offlinePlayers,
+               LongConsumer progress, BooleanSupplier stopped) throws IOException {
+        this.progress = progress;
+        this.startedAt = System.currentTimeMillis();
+
+        if (playerData != null && playerData.isDirectory()) {
+            readPlayerData(playerData.toPath(), stopped);
+        }
+        for (Map.Entry<UUID, Long> player : offlinePlayers.entrySet()) {
+            if (stopped.getAsBoolean()) {
+                break;
+            }
+            add(player.getKey(), player.getValue());
+        }
+        if (userCache != null && userCache.isFile()) {
+            readUserCache(userCache.toPath(), stopped);
+        }
+        flush();
+
+        return new Result(scanned, imported);
+    }
+
+    /**
+     * Streams the uuid field of each entry in usercache.json
+     */
+    private void readUserCache(Path file, BooleanSupplier stopped) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext() && !stopped.getAsBoolean()) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if ("uuid".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                        UUID uuid = parseUuid(reader.nextString());
+                        if (uuid != null) {
+                            // The cache only says when an entry expires, not when the player first joined
+                            add(uuid, 0);
+                        }
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+        }
+    }
+
+    /**
+     * Streams the UUIDs named by the <uuid>.dat files in a playerdata directory
+     * with the time each file was created
+     */
+    private void readPlayerData(Path directory, BooleanSupplier stopped) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.dat")) {
+            for (Path file : files) {
+                if (stopped.getAsBoolean()) {
+                    break;
+                }
+
+                String name = file.getFileName().toString();
+                UUID uuid = parseUuid(name.substring(0, name.length() - ".dat".length()));
+                if (uuid != null) {
+                    add(uuid, createdAt(file));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets when a playerdata file was created. The server rewrites the file on every save,
+     * so where the file system keeps no creation time the earlier of the two times is used.
+     */
+    private static long createdAt(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return Math.min(attributes.creationTime().toMillis(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void add(UUID uuid, long firstJoin) {
+        batchTimestamps[batch.size()] = firstJoin > 0 ? firstJoin : startedAt;
+        batch.add(uuid);
+        if (batch.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        boolean[] created = writer.apply(batch, Arrays.copyOf(batchTimestamps, batch.size()));
+        for (boolean wasCreated : created) {
+            if (wasCreated) {
+                imported++;
+            }
+        }
+        scanned += batch.size();
+        batch.clear();
+        progress.accept(scanned);
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            // Temporary files and other strays
+            return null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
+import dev.lsdmc.chatGe3ks.util.Constants;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Moves first join records from one string key per player into the bucketed hash layout.
+ * Old keys are streamed with SCAN a page at a time, copied with HSETNX and only then
+ * unlinked, so a player always has a record in at least one layout. Safe to rerun.
+ */
+class FirstJoinMigration {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final RedisConnector connector;
+    private final FirstJoinBuckets buckets;
+    private final IoExecutor ioExecutor;
+
+    FirstJoinMigration(RedisConnector connector, FirstJoinBuckets buckets, IoExecutor ioExecutor) {
+        this.connector = connector;
+        this.buckets = buckets;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Runs the migration on the calling thread. Each step borrows at most one connection,
+     * inside a Redis permit of its own, so the permits keep counting connections in use.
+     *
+     * @param progress Called with the running total after each page
+     * @param stopped Checked between pages; returning true stops early
+     * @return Number of records migrated
+     */
+    long run(LongConsumer progress, BooleanSupplier stopped) {
+        long migrated = 0;
+        ScanParams params = new ScanParams()
+                .match(Constants.Redis.FIRSTJOIN_PREFIX + "*")
+                .count(PAGE_SIZE);
+
+        // In cluster mode every primary holds part of the old keyspace
+        for (HostAndPort node : connector.primaryNodes()) {
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                String pageCursor = cursor;
+                ScanResult<String> page = onPrimary(node, jedis -> jedis.scan(pageCursor, params));
+                if (!page.getResult().isEmpty()) {
+                    migrated += migratePage(node, page.getResult());
+                    progress.accept(migrated);
+                }
+                cursor = page.getCursor();
+            } while (!stopped.getAsBoolean() && !ScanParams.SCAN_POINTER_START.equals(cursor));
+
+            if (stopped.getAsBoolean()) {
+                break;
+            }
+        }
+
+        if (!stopped.getAsBoolean()) {
+            // Lets new players skip the old-key check from now on
+            ioExecutor.withPermitUnchecked(IoExecutor.Resource.REDIS, () -> {
+                try (Jedis jedis = connector.getResource(Constants.Redis.FIRSTJOIN_MIGRATED_KEY)) {
+                    return jedis.set(Constants.Redis.FIRSTJOIN_MIGRATED_KEY, String.valueOf(System.currentTimeMillis()));
+                }
+            });
+        }
+
+        return migrated;
+    }
+
+    /**
+     * Migrates one page of old keys, all owned by the given primary
+     *
+     * @return Number of records migrated
+     */
+    private int migratePage(HostAndPort node, List<String> keys) {
+        List<Response<String>> values = new ArrayList<>(keys.size());
+        onPrimary(node, jedis -> {
+            Pipeline reads = jedis.pipelined();
+            for (String key : keys) {
+                values.add(reads.get(key));
+            }
+            reads.sync();
+            return null;
+        });
+
+        int prefixLength = Constants.Redis.FIRSTJOIN_PREFIX.length();
+        long now = System.currentTimeMillis();
+        List<UUID> uuids = new ArrayList<>(keys.size());
+        List<byte[]> timestamps = new ArrayList<>(keys.size());
+        List<String> copied = new ArrayList<>(keys.size());
+
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values.get(i).get();
+            if (value == null) {
+                // Removed since the SCAN page was read
+                continue;
+            }
+
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(keys.get(i).substring(prefixLength));
+            } catch (IllegalArgumentException e) {
+                // Not a player key
+                continue;
+            }
+
+            long timestamp;
+            try {
+                timestamp = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                timestamp = now;
+            }
+
+            uuids.add(uuid);
+            timestamps.add(FirstJoinBuckets.encodeTimestamp(timestamp));
+            copied.add(keys.get(i));
+        }
+
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+
+        // Buckets may live on other nodes, so route the writes through the connector
+        List<Integer> indices = new ArrayList<>(uuids.size());
+        for (int i = 0; i < uuids.size(); i++) {
+            indices.add(i);
+        }
+        ioExecutor.withPermitUnchecked(IoExecutor.Resource.REDIS, () -> connector.pipelined(indices,
+                index -> JedisClusterCRC16.getSlot(buckets.bucketKey(uuids.get(index))),
+                (pipeline, index) -> pipeline.hsetnx(buckets.bucketKey(uuids.get(index)),
+                        FirstJoinBuckets.field(uuids.get(index)), timestamps.get(index))));
+
+        // Only drop old keys once their records are in a bucket
+        List<Response<Long>> removed = new ArrayList<>(copied.size());
+        onPrimary(node, jedis -> {
+            Pipeline unlinks = jedis.pipelined();
+            for (String key : copied) {
+                removed.add(unlinks.unlink(key));
+            }
+            unlinks.sync();
+            return null;
+        });
+        for (Response<Long> response : removed) {
+            response.get(); // Throws if a key could not be removed, e.g. after a slot moved
+        }
+
+        return copied.size();
+    }
+
+    /**
+     * Runs one step on a connection to the primary, borrowed and handed back inside a Redis permit
+     */
+    private <T> T onPrimary(HostAndPort node, Function<Jedis, T> step) {
+        return ioExecutor.withPermitUnchecked(IoExecutor.Resource.REDIS, () -> {
+            try (Jedis jedis = connector.getPrimaryResource(node)) {
+                return step.apply(jedis);
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable record of which players have joined the network before.
+ * Selected with first-join.storage.backend; {@link DataManager} adds caching, batching
+ * and, for remote stores, the circuit breaker and local fallback on top.
+ */
+public interface FirstJoinStore extends Closeable {
+
+    /**
+     * Records a batch of joins, keeping the existing record for players seen before
+     *
+     * @param uuids The UUIDs of the joining players, duplicates allowed
+     * @param timestamp The join time to store for new players, in epoch milliseconds
+     * @return For each UUID in order, true if it had no record before this call
+     * @throws IOException If the store could not be read or written
+     */
+    boolean[] register(List<UUID> uuids, long timestamp) throws IOException;
+
+    /**
+     * Records players known from before the plugin was installed, keeping existing records.
+     * Unlike {@link #register}, nothing but the record itself is written: these players are
+     * not counted as new and no first-join server is recorded for them.
+     *
+     * @param uuids The UUIDs of the players, duplicates allowed
+     * @param timestamps For each UUID in order, its first join time in epoch milliseconds
+     * @return For each UUID in order, true if it had no record before this call
+     * @throws IOException If the store could not be read or written
+     */
+    boolean[] importRecords(List<UUID> uuids, long[] timestamps) throws IOException;
+
+    /**
+     * Checks which players already have a record, without recording anything
+     *
+     * @param uuids The UUIDs to look up
+     * @return For each UUID in order, true if it has a record
+     * @throws IOException If the store could not be read
+     */
+    boolean[] contains(List<UUID> uuids) throws IOException;
+
+    /**
+     * Whether the store is reached over the network. Remote stores are guarded by the
+     * circuit breaker and fall back to local data while unavailable.
+     *
+     * @return true for network-backed stores
+     */
+    boolean isRemote();
+
+    /**
+     * Describes the store for log messages
+     *
+     * @return A short description
+     */
+    String describe();
+}
@@ -0,0 +1,110 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of player UUIDs that are known to have joined before.
+ * A negative answer is definite, so only players the filter has never seen need a Redis round trip.
+ */
+class KnownPlayerFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * Creates a filter sized for the expected number of players
+     *
+     * @param expectedPlayers Expected number of distinct UUIDs
+     * @param falsePositiveRate Desired false positive probability (0-1)
+     */
+    KnownPlayerFilter(long expectedPlayers, double falsePositiveRate) {
+        long n = Math.max(1, expectedPlayers);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+
+        // Optimal bit count m = -n ln p / (ln 2)^2, rounded up to whole words
+        long m = (long) Math.ceil(-n * Math.log(p) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * LN2));
+    }
+
+    /**
+     * Records a UUID as known
+     *
+     * @param uuid The player's UUID
+     */
+    void put(UUID uuid) {
+        long h1 = mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+        long h2 = mix(uuid.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1L;
+
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            if ((words.get(index) & mask) == 0) {
+                words.getAndAccumulate(index, mask, (current, m) -> current | m);
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks whether a UUID may have been recorded
+     *
+     * @param uuid The player's UUID
+     * @return false if the UUID was definitely never recorded
+     */
+    boolean mightContain(UUID uuid) {
+        long h1 = mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+        long h2 = mix(uuid.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the approximate number of distinct UUIDs recorded
+     *
+     * @return Approximate insertion count
+     */
+    long approximateSize() {
+        return insertions.get();
+    }
+
+    /**
+     * Gets the memory used by the bit array
+     *
+     * @return Size in bytes
+     */
+    long sizeInBytes() {
+        return bitCount >>> 3;
+    }
+
+    /**
+     * Murmur3 64-bit finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,305 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Persistent set of player UUIDs stored in a memory-mapped file.
+ * Uses open addressing with linear probing over 16-byte slots, so entries live
+ * off-heap, survive restarts and cost no garbage to look up.
+ *
+ * <p>File layout: a 64-byte header followed by {@code capacity} slots holding the
+ * most and least significant bits of a UUID. An all-zero slot is empty.</p>
+ *
+ * <p>I/O tasks may still reach the index while the plugin shuts down, so every method
+ * checks under the monitor whether it has been closed: lookups then find nothing and
+ * adds fail like any other write error, instead of touching an unmapped buffer.</p>
+ */
+class MappedFirstJoinIndex implements Closeable {
+
+    private static final int MAGIC = 0x4347334B; // "CG3K"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_CAPACITY = 8;
+    private static final int OFFSET_SIZE = 16;
+    private static final int OFFSET_STATE = 24;
+    private static final int OFFSET_TARGET_CAPACITY = 32;
+
+    private static final int STATE_CLEAN = 0;
+    private static final int STATE_REHASHING = 1;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int MIN_CAPACITY = 1 << 16;
+    // Largest power of two whose slots still fit in a single mapping
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final double MAX_LOAD = 0.7;
+
+    private final Path path;
+    private final Path rehashPath;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Opens the index at the given path, creating it if needed
+     *
+     * @param path The index file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    MappedFirstJoinIndex(Path path) throws IOException {
+        this.path = path;
+        this.rehashPath = path.resolveSibling(path.getFileName() + ".rehash");
+        open();
+    }
+
+    private void open() throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) >= HEADER_SIZE;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (exists) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            int storedCapacity = (int) header.getLong(OFFSET_CAPACITY);
+
+            boolean valid = header.getInt(OFFSET_MAGIC) == MAGIC
+                    && header.getInt(OFFSET_VERSION) == VERSION
+                    && Integer.bitCount(storedCapacity) == 1
+                    && storedCapacity >= MIN_CAPACITY && storedCapacity <= MAX_CAPACITY
+                    && channel.size() >= HEADER_SIZE + (long) storedCapacity * SLOT_SIZE;
+
+            if (valid) {
+                capacity = storedCapacity;
+                size = header.getLong(OFFSET_SIZE);
+                buffer = map(capacity);
+
+                if (buffer.getInt(OFFSET_STATE) == STATE_REHASHING) {
+                    recoverRehash();
+                }
+                return;
+            }
+
+            // Unknown or damaged file: start over rather than trusting it
+            channel.truncate(0);
+        }
+
+        capacity = MIN_CAPACITY;
+        size = 0;
+        buffer = map(capacity);
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putLong(OFFSET_CAPACITY, capacity);
+        buffer.putLong(OFFSET_SIZE, 0);
+        buffer.putInt(OFFSET_STATE, STATE_CLEAN);
+        buffer.force();
+    }
+
+    private MappedByteBuffer map(int slots) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+    }
+
+    /**
+     * Checks whether the UUID is in the index
+     *
+     * @param uuid The player's UUID
+     * @return true if present
+     */
+    synchronized boolean contains(UUID uuid) {
+        if (closed) {
+            return false;
+        }
+
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int mask = capacity - 1;
+
+        for (int slot = indexFor(msb, lsb, mask); ; slot = (slot + 1) & mask) {
+            int position = HEADER_SIZE + slot * SLOT_SIZE;
+            long storedMsb = buffer.getLong(position);
+            long storedLsb = buffer.getLong(position + 8);
+
+            if (storedMsb == 0 && storedLsb == 0) {
+                return false;
+            }
+            if (storedMsb == msb && storedLsb == lsb) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds the UUID to the index
+     *
+     * @param uuid The player's UUID
+     * @return true if the UUID was not present before
+     * @throws IOException if the index is closed, or needed to grow and could not
+     */
+    synchronized boolean add(UUID uuid) throws IOException {
+        if (closed) {
+            throw new IOException("First join index is closed");
+        }
+
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            return false;
+        }
+
+        if (size + 1 > capacity * MAX_LOAD) {
+            if (capacity >= MAX_CAPACITY) {
+                throw new IOException("First join index is full (" + size + " players)");
+            }
+            rehash(capacity << 1);
+        }
+
+        if (!insert(buffer, capacity, msb, lsb)) {
+            return false;
+        }
+
+        size++;
+        buffer.putLong(OFFSET_SIZE, size);
+        return true;
+    }
+
+    /**
+     * Checks whether the index has reached its largest size, after which adding a new UUID fails
+     *
+     * @return true if no more UUIDs fit
+     */
+    synchronized boolean isFull() {
+        return !closed && capacity >= MAX_CAPACITY && size + 1 > capacity * MAX_LOAD;
+    }
+
+    /**
+     * Gets the number of UUIDs in the index
+     *
+     * @return Entry count
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Flushes the mapping to disk and closes the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static boolean insert(MappedByteBuffer target, int slots, long msb, long lsb) {
+        int mask = slots - 1;
+
+        for (int slot = indexFor(msb, lsb, mask); ; slot = (slot + 1) & mask) {
+            int position = HEADER_SIZE + slot * SLOT_SIZE;
+            long storedMsb = target.getLong(position);
+            long storedLsb = target.getLong(position + 8);
+
+            if (storedMsb == 0 && storedLsb == 0) {
+                // Write the low half first so a half-written slot never matches a lookup
+                target.putLong(position + 8, lsb);
+                target.putLong(position, msb);
+                return true;
+            }
+            if (storedMsb == msb && storedLsb == lsb) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Grows the table. Old slots are copied to a side file first, so a crash
+     * mid-rehash is finished on the next open instead of losing entries.
+     */
+    private void rehash(int newCapacity) throws IOException {
+        long slotBytes = (long) capacity * SLOT_SIZE;
+
+        try (FileChannel side = FileChannel.open(rehashPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer copy = side.map(FileChannel.MapMode.READ_WRITE, 0, slotBytes);
+            copy.put(0, buffer, HEADER_SIZE, (int) slotBytes);
+            copy.force();
+        }
+
+        buffer.putLong(OFFSET_TARGET_CAPACITY, newCapacity);
+        buffer.putInt(OFFSET_STATE, STATE_REHASHING);
+        buffer.force();
+
+        recoverRehash();
+    }
+
+    private void recoverRehash() throws IOException {
+        int newCapacity = (int) buffer.getLong(OFFSET_TARGET_CAPACITY);
+        if (!Files.exists(rehashPath) || Integer.bitCount(newCapacity) != 1 || newCapacity > MAX_CAPACITY) {
+            // Nothing to resume from; the table itself was never touched
+            buffer.putInt(OFFSET_STATE, STATE_CLEAN);
+            buffer.force();
+            return;
+        }
+
+        try (FileChannel side = FileChannel.open(rehashPath, StandardOpenOption.READ)) {
+            MappedByteBuffer copy = side.map(FileChannel.MapMode.READ_ONLY, 0, side.size());
+            int oldSlots = (int) (side.size() / SLOT_SIZE);
+
+            // Clear the whole new table, including anything a crashed attempt already reinserted
+            buffer = map(newCapacity);
+            clearSlots(buffer, newCapacity);
+
+            long count = 0;
+            for (int slot = 0; slot < oldSlots; slot++) {
+                long msb = copy.getLong(slot * SLOT_SIZE);
+                long lsb = copy.getLong(slot * SLOT_SIZE + 8);
+                if ((msb != 0 || lsb != 0) && insert(buffer, newCapacity, msb, lsb)) {
+                    count++;
+                }
+            }
+
+            capacity = newCapacity;
+            size = count;
+            buffer.putLong(OFFSET_CAPACITY, capacity);
+            buffer.putLong(OFFSET_SIZE, size);
+            buffer.putInt(OFFSET_STATE, STATE_CLEAN);
+            buffer.force();
+        }
+
+        try {
+            Files.deleteIfExists(rehashPath);
+        } catch (IOException ignored) {
+            // Some platforms refuse to delete a file that was recently mapped; it is overwritten next time
+        }
+    }
+
+    private static void clearSlots(MappedByteBuffer target, int slots) {
+        byte[] zeros = new byte[64 * 1024];
+        long end = HEADER_SIZE + (long) slots * SLOT_SIZE;
+
+        for (long position = HEADER_SIZE; position < end; position += zeros.length) {
+            target.put((int) position, zeros, 0, (int) Math.min(zeros.length, end - position));
+        }
+    }
+
+    private static int indexFor(long msb, long lsb, int mask) {
+        long z = msb ^ Long.rotateLeft(lsb, 32);
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (z ^ (z >>> 33)) & mask;
+    }
+}
@@ -0,0 +1,157 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of first joins decided from local data while Redis was unavailable.
+ * Once Redis is back the log is replayed with set-if-absent writes, so other servers
+ * learn about these players instead of welcoming them again, and is then truncated.
+ *
+ * <p>Each record is 24 bytes: the most and least significant bits of the UUID followed
+ * by the join time in epoch milliseconds. A torn record at the end, left by a crash
+ * mid-write, is dropped when the journal is opened.</p>
+ */
+class OutageJournal implements Closeable {
+
+    /**
+     * One journaled first join
+     *
+     * @param uuid The player's UUID
+     * @param timestamp When the player joined, in epoch milliseconds
+     */
+    record Entry(UUID uuid, long timestamp) {
+    }
+
+    private static final int RECORD_SIZE = 24;
+    private static final int REPLAY_BATCH = 1000;
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+    /**
+     * Opens the journal at the given path, creating it if needed
+     *
+     * @param path The journal file
+     * @throws IOException if the file cannot be opened
+     */
+    OutageJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long complete = channel.size() - channel.size() % RECORD_SIZE;
+        if (complete != channel.size()) {
+            channel.truncate(complete);
+        }
+    }
+
+    /**
+     * Appends a first join
+     *
+     * @param uuid The player's UUID
+     * @param timestamp When the player joined
+     * @throws IOException if the record could not be written
+     */
+    synchronized void append(UUID uuid, long timestamp) throws IOException {
+        record.clear();
+        record.putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .putLong(timestamp)
+                .flip();
+
+        long position = channel.size();
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+    }
+
+    /**
+     * Gets the number of journaled first joins waiting to be replayed
+     *
+     * @return The record count
+     * @throws IOException if the file size could not be read
+     */
+    synchronized long size() throws IOException {
+        return channel.size() / RECORD_SIZE;
+    }
+
+    /**
+     * Replays every record in batches, then drops the replayed records.
+     * Records appended while the replay runs are kept for the next one.
+     * If the writer throws, nothing is dropped and the whole journal is replayed next time,
+     * which is harmless because the writes never overwrite.
+     *
+     * @param writer Writes one batch to Redis
+     * @return Number of records replayed
+     * @throws IOException if the journal could not be read or truncated
+     */
+    long replay(Consumer<List<Entry>> writer) throws IOException {
+        long end;
+        synchronized (this) {
+            end = channel.size();
+        }
+
+        ByteBuffer page = ByteBuffer.allocate(REPLAY_BATCH * RECORD_SIZE);
+        List<Entry> batch = new ArrayList<>(REPLAY_BATCH);
+        long position = 0;
+
+        while (position < end) {
+            page.clear();
+            page.limit((int) Math.min(page.capacity(), end - position));
+            while (page.hasRemaining()) {
+                if (channel.read(page, position + page.position()) < 0) {
+                    break;
+                }
+            }
+            page.flip();
+
+            batch.clear();
+            while (page.remaining() >= RECORD_SIZE) {
+                batch.add(new Entry(new UUID(page.getLong(), page.getLong()), page.getLong()));
+            }
+            writer.accept(batch);
+            position += (long) batch.size() * RECORD_SIZE;
+        }
+
+        discardReplayed(end);
+        return end / RECORD_SIZE;
+    }
+
+    /**
+     * Drops the first {@code replayed} bytes, moving anything appended since to the front
+     */
+    private synchronized void discardReplayed(long replayed) throws IOException {
+        long tail = channel.size() - replayed;
+        if (tail > 0) {
+            ByteBuffer remaining = ByteBuffer.allocate((int) tail);
+            while (remaining.hasRemaining()) {
+                if (channel.read(remaining, replayed + remaining.position()) < 0) {
+                    break;
+                }
+            }
+            remaining.flip();
+
+            long position = 0;
+            while (remaining.hasRemaining()) {
+                position += channel.write(remaining, position);
+            }
+        }
+        channel.truncate(Math.max(0, tail));
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker guarding Redis calls.
+ * <ul>
+ *     <li>CLOSED: calls go through; failures and slow calls are tracked over a rolling window.</li>
+ *     <li>OPEN: calls fail fast to the local fallback until a background reconnect succeeds.</li>
+ *     <li>HALF_OPEN: a few trial calls are let through; if they all succeed the breaker closes.</li>
+ * </ul>
+ */
+class RedisCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final LoggerUtils logger;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final long openDurationMillis;
+    private final int halfOpenPermits;
+
+    // Rolling window of call outcomes, true meaning failed or slow
+    private final boolean[] outcomes;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    /**
+     * Creates a new circuit breaker
+     *
+     * @param logger The logger for state transitions
+     * @param failureRatePercent Percentage of failed or slow calls in the window that opens the breaker
+     * @param windowSize Number of recent calls to consider
+     * @param minimumCalls Minimum calls in the window before the failure rate is evaluated
+     * @param slowCallMillis Calls slower than this count as failures
+     * @param openDurationMillis Minimum time to stay open before a reconnect is attempted
+     * @param halfOpenPermits Trial calls allowed while half-open
+     */
+    RedisCircuitBreaker(LoggerUtils logger, int failureRatePercent, int windowSize, int minimumCalls,
+                        long slowCallMillis, long openDurationMillis, int halfOpenPermits) {
+        this.logger = logger;
+        this.failureRateThreshold = Math.max(1, Math.min(100, failureRatePercent)) / 100.0;
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(outcomes.length, minimumCalls));
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, slowCallMillis));
+        this.openDurationMillis = Math.max(0, openDurationMillis);
+        this.halfOpenPermits = Math.max(1, halfOpenPermits);
+    }
+
+    /**
+     * Checks whether a call may go to Redis. Never blocks.
+     *
+     * @return true if the call should be attempted, false to use the fallback
+     */
+    boolean allowRequest() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (state != State.HALF_OPEN) {
+                return state == State.CLOSED;
+            }
+            if (halfOpenIssued < halfOpenPermits) {
+                halfOpenIssued++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Records a call that completed
+     *
+     * @param latencyNanos How long the call took
+     */
+    synchronized void recordSuccess(long latencyNanos) {
+        boolean slow = latencyNanos > slowCallNanos;
+
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                trip("trial call took " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + "ms");
+            } else if (++halfOpenSucceeded >= halfOpenPermits) {
+                close();
+            }
+            return;
+        }
+
+        record(slow);
+    }
+
+    /**
+     * Records a call that failed because of a connection problem
+     */
+    synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            trip("trial call failed");
+            return;
+        }
+
+        record(true);
+    }
+
+    /**
+     * Opens the breaker immediately, e.g. when a connection attempt fails
+     *
+     * @param reason Why the breaker opened
+     */
+    synchronized void trip(String reason) {
+        if (state != State.OPEN) {
+            logger.warning("Redis circuit breaker opened (" + reason + "), using local first join data");
+        }
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        resetWindow();
+    }
+
+    /**
+     * Called after a new connection was established; an open breaker starts letting trial calls through
+     */
+    synchronized void onConnectionEstablished() {
+        if (state == State.OPEN) {
+            state = State.HALF_OPEN;
+            halfOpenIssued = 0;
+            halfOpenSucceeded = 0;
+            logger.info("Redis connection restored, circuit breaker half-open");
+        }
+    }
+
+    /**
+     * Checks whether the breaker has been open long enough for a reconnect attempt
+     *
+     * @return true if a reconnect should be attempted
+     */
+    synchronized boolean isReconnectDue() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis;
+    }
+
+    /**
+     * Gets the current state
+     *
+     * @return The breaker state
+     */
+    State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == outcomes.length) {
+            if (outcomes[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+
+        outcomes[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % outcomes.length;
+
+        if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+            trip(windowFailures + " of the last " + windowCount + " calls failed or were slow");
+        }
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        resetWindow();
+        logger.info("Redis circuit breaker closed, first join detection back on Redis");
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,268 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Routes Redis commands to the server that owns each key, so the rest of the
+ * plugin works the same against a single server or a Redis Cluster.
+ */
+abstract class RedisConnector implements Closeable {
+
+    // Replica for reads that tolerate replication lag, null to read from the primary
+    private volatile ReplicaReader replica;
+
+    /**
+     * Borrows a connection to the server that owns the given key.
+     * Closing the returned client hands the connection back.
+     *
+     * @param key The key the commands will touch
+     * @return A client bound to the owning server
+     */
+    Jedis getResource(String key) {
+        return getResourceForSlot(JedisClusterCRC16.getSlot(key));
+    }
+
+    /**
+     * Borrows a connection to the server that owns the given binary key.
+     *
+     * @param key The key the commands will touch
+     * @return A client bound to the owning server
+     */
+    Jedis getResource(byte[] key) {
+        return getResourceForSlot(JedisClusterCRC16.getSlot(key));
+    }
+
+    /**
+     * Borrows a connection to the server that owns the given hash slot
+     *
+     * @param slot The cluster hash slot, ignored outside cluster mode
+     * @return A client bound to the owning server
+     */
+    abstract Jedis getResourceForSlot(int slot);
+
+    /**
+     * Runs one command per key as pipelined batches, one pipeline per server.
+     *
+     * @param keys The keys to run the command for, duplicates allowed
+     * @param command Queues the command for a key on a pipeline
+     * @param <T> The reply type
+     * @return The replies in the same order as the keys
+     */
+    <T> List<T> pipelined(List<String> keys, BiFunction<Pipeline, String, Response<T>> command) {
+        return pipelined(keys, JedisClusterCRC16::getSlot, command);
+    }
+
+    /**
+     * Runs one command per item as pipelined batches, one pipeline per server.
+     *
+     * @param items The items to run the command for, duplicates allowed
+     * @param slotOf Gives the hash slot of the key an item's command touches
+     * @param command Queues the command for an item on a pipeline
+     * @param <K> The item type
+     * @param <T> The reply type
+     * @return The replies in the same order as the items
+     */
+    @SuppressWarnings("unchecked")
+    <K, T> List<T> pipelined(List<K> items, ToIntFunction<K> slotOf, BiFunction<Pipeline, K, Response<T>> command) {
+        List<Object> replies = pipelinedReplies(items, slotOf, command);
+        for (Object reply : replies) {
+            if (reply instanceof JedisDataException error) {
+                throw error;
+            }
+        }
+        return (List<T>) replies;
+    }
+
+    /**
+     * Runs one command per item as pipelined batches, one pipeline per server,
+     * keeping per-item errors instead of throwing the first one. Lets callers retry
+     * just the commands that failed, e.g. after a NOSCRIPT reply.
+     *
+     * @param items The items to run the command for, duplicates allowed
+     * @param slotOf Gives the hash slot of the key an item's command touches
+     * @param command Queues the command for an item on a pipeline
+     * @param <K> The item type
+     * @param <T> The reply type
+     * @return The replies in the same order as the items, with a {@link JedisDataException} for each failed command
+     */
+    abstract <K, T> List<Object> pipelinedReplies(List<K> items, ToIntFunction<K> slotOf,
+                                                  BiFunction<Pipeline, K, Response<T>> command);
+
+    /**
+     * Runs one command per item in a single pipeline on the given client,
+     * keeping per-item errors in place of their replies
+     *
+     * @param jedis The client to pipeline on
+     * @param items The items to run the command for
+     * @param command Queues the command for an item on a pipeline
+     * @param <K> The item type
+     * @param <T> The reply type
+     * @return The replies in the same order as the items, with a {@link JedisDataException} for each failed command
+     */
+    static <K, T> List<Object> pipelineOn(Jedis jedis, List<K> items, BiFunction<Pipeline, K, Response<T>> command) {
+        Pipeline pipeline = jedis.pipelined();
+
+        List<Response<T>> responses = new ArrayList<>(items.size());
+        for (K item : items) {
+            responses.add(command.apply(pipeline, item));
+        }
+        pipeline.sync();
+
+        List<Object> replies = new ArrayList<>(responses.size());
+        for (Response<T> response : responses) {
+            try {
+                replies.add(response.get());
+            } catch (JedisDataException e) {
+                replies.add(e);
+            }
+        }
+        return replies;
+    }
+
+    /**
+     * Sends lag-tolerant reads to a replica from now on
+     *
+     * @param replica The replica to read from, or null to stop
+     */
+    synchronized void useReplica(ReplicaReader replica) {
+        ReplicaReader previous = this.replica;
+        this.replica = replica;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Stops reading from a replica that failed, unless it has already been replaced
+     *
+     * @param failed The replica that could not be reached
+     */
+    private synchronized void dropReplica(ReplicaReader failed) {
+        if (replica == failed) {
+            replica = null;
+            failed.close();
+        }
+    }
+
+    /**
+     * Checks whether lag-tolerant reads go to a replica
+     *
+     * @return true if a replica is in use
+     */
+    boolean hasReplica() {
+        return replica != null;
+    }
+
+    /**
+     * Describes the replica reads go to, for log messages
+     *
+     * @return The replica's address, or null if none is in use
+     */
+    String describeReplica() {
+        ReplicaReader current = replica;
+        return current != null ? current.node().toString() : null;
+    }
+
+    /**
+     * Runs one read per item in a single pipeline on the replica.
+     * Replies may lag behind the primary.
+     *
+     * @param items The items to read
+     * @param command Queues the read for an item on a pipeline
+     * @param <K> The item type
+     * @param <T> The reply type
+     * @return The replies in the same order as the items
+     * @throws IllegalStateException If no replica is in use
+     * @throws JedisConnectionException If the replica could not be reached, after it has been dropped
+     */
+    <K, T> List<T> pipelinedOnReplica(List<K> items, BiFunction<Pipeline, K, Response<T>> command) {
+        ReplicaReader current = replica;
+        if (current == null) {
+            throw new IllegalStateException("No replica in use");
+        }
+        try {
+            return current.pipelined(items, command);
+        } catch (JedisConnectionException e) {
+            // Otherwise every later batch waits out the timeout first; the health monitor selects a replica again
+            dropReplica(current);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the replica connections, if any. Called by subclasses from {@link #close()}.
+     */
+    void closeReplica() {
+        useReplica(null);
+    }
+
+    /**
+     * Runs an action once against every primary server, e.g. to SCAN the whole keyspace.
+     *
+     * @param action The action to run with a borrowed client
+     */
+    abstract void forEachPrimary(Consumer<Jedis> action);
+
+    /**
+     * Gets the primary servers, for work that visits each one over many short steps,
+     * e.g. a SCAN that borrows a connection per page with {@link #getPrimaryResource}
+     *
+     * @return The primaries, one per shard
+     */
+    abstract List<HostAndPort> primaryNodes();
+
+    /**
+     * Borrows a connection to one of the primaries from {@link #primaryNodes()}.
+     * Closing the returned client hands the connection back.
+     *
+     * @param node The primary
+     * @return A client bound to the primary
+     */
+    abstract Jedis getPrimaryResource(HostAndPort node);
+
+    /**
+     * Opens two unpooled connections per primary for client-side caching:
+     * an invalidation subscriber followed by the tracking connection it serves.
+     * The caller owns and must close them.
+     *
+     * @return Subscriber and tracker pairs, in that order
+     */
+    abstract List<Jedis> openTrackingConnections();
+
+    /**
+     * Checks that every primary server answers a PING
+     */
+    void ping() {
+        forEachPrimary(Jedis::ping);
+    }
+
+    /**
+     * Checks whether the connector has been closed
+     *
+     * @return true if closed
+     */
+    abstract boolean isClosed();
+
+    /**
+     * Describes where the connector points, for log messages
+     *
+     * @return A human-readable description
+     */
+    abstract String describe();
+
+    @Override
+    public abstract void close();
+}
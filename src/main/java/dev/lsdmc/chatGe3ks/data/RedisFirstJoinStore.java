@@ -0,0 +1,529 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.util.Constants;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * First join store backed by Redis, shared by every server on the network.
+ * Records are one string key per player, or binary hashes in the bucketed layout;
+ * either way each batch is written with one pipeline per server.
+ *
+ * <p>With metadata enabled each player is registered by a Lua script that also records
+ * the server they first joined on and counts new players, all in the same round trip.
+ * The script is called by hash and loaded again whenever a server replies NOSCRIPT.</p>
+ *
+ * <p>When the connector reads from a replica, players are first looked up there and only
+ * those the replica does not know are written to the primary.</p>
+ */
+class RedisFirstJoinStore implements FirstJoinStore {
+
+    // KEYS: record, server name, and in standalone mode the total and daily new player counters
+    // ARGV: bucket field (empty for one key per player), timestamp, server name, daily counter lifetime
+    private static final String REGISTER_SCRIPT = """
+            local added
+            if ARGV[1] == '' then
+                added = redis.call('SETNX', KEYS[1], ARGV[2])
+            else
+                added = redis.call('HSETNX', KEYS[1], ARGV[1], ARGV[2])
+            end
+            if added == 1 and ARGV[3] ~= '' then
+                if ARGV[1] == '' then
+                    redis.call('SET', KEYS[2], ARGV[3])
+                else
+                    redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+                end
+            end
+            if added == 1 and #KEYS == 4 then
+                redis.call('INCR', KEYS[3])
+                if redis.call('INCR', KEYS[4]) == 1 then
+                    redis.call('EXPIRE', KEYS[4], ARGV[4])
+                end
+            end
+            return added
+            """;
+    private static final byte[] REGISTER_SHA = sha1(REGISTER_SCRIPT);
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Arguments of one script call
+     */
+    private record ScriptCall(int slot, List<byte[]> keys, List<byte[]> args) {
+    }
+
+    private final Supplier<RedisConnector> connector;
+    private final Supplier<ClientSideCache> clientCache;
+    private final FirstJoinBuckets buckets;
+    private final BooleanSupplier legacyKeysMigrated;
+
+    private final boolean metadata;
+    private final byte[] serverName;
+    private final long dailyCounterSeconds;
+    private final byte[] dailyCounterArg;
+
+    /**
+     * Creates a new store
+     *
+     * @param connector Supplies the current connector, which changes on reconnect
+     * @param clientCache Supplies the client-side cache, or null while it is disabled
+     * @param buckets The bucketed layout, or null for one key per player
+     * @param legacyKeysMigrated Whether per-player keys are known to be gone in the bucketed layout
+     * @param metadata Whether to record metadata and counters with the registration script
+     * @param serverName Name recorded as the server a new player joined on, empty to skip
+     * @param dailyCounterDays How long daily new player counters are kept
+     */
+    RedisFirstJoinStore(Supplier<RedisConnector> connector, Supplier<ClientSideCache> clientCache,
+                        FirstJoinBuckets buckets, BooleanSupplier legacyKeysMigrated,
+                        boolean metadata, String serverName, int dailyCounterDays) {
+        this.connector = connector;
+        this.clientCache = clientCache;
+        this.buckets = buckets;
+        this.legacyKeysMigrated = legacyKeysMigrated;
+        this.metadata = metadata;
+        this.serverName = (serverName != null ? serverName : "").getBytes(StandardCharsets.UTF_8);
+        this.dailyCounterSeconds = Math.max(1, dailyCounterDays) * 86_400L;
+        this.dailyCounterArg = String.valueOf(dailyCounterSeconds).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public boolean[] register(List<UUID> uuids, long timestamp) {
+        RedisConnector current = connector.get();
+        boolean[] known = current.hasReplica() ? findOnReplica(current, uuids) : null;
+        if (known == null) {
+            return write(uuids, timestamp);
+        }
+
+        // Only players the replica has not seen need the primary
+        return writeUnknown(known, unknown -> write(select(uuids, unknown), timestamp));
+    }
+
+    @Override
+    public boolean[] importRecords(List<UUID> uuids, long[] timestamps) {
+        RedisConnector current = connector.get();
+        boolean[] legacy = buckets != null ? findLegacyKeys(current, uuids) : null;
+        if (legacy != null) {
+            return writeUnknown(legacy, unknown -> importNew(current, select(uuids, unknown), select(timestamps, unknown)));
+        }
+        return importNew(current, uuids, timestamps);
+    }
+
+    @Override
+    public boolean[] contains(List<UUID> uuids) {
+        RedisConnector current = connector.get();
+        boolean[] known = current.hasReplica() ? findOnReplica(current, uuids) : null;
+        if (known == null) {
+            known = new boolean[uuids.size()];
+        }
+
+        // A replica may not have caught up yet, so players it does not know are asked on the primary
+        List<Integer> unknown = new ArrayList<>();
+        for (int i = 0; i < known.length; i++) {
+            if (!known[i]) {
+                unknown.add(i);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return known;
+        }
+
+        List<UUID> lookups = new ArrayList<>(unknown.size());
+        for (int index : unknown) {
+            lookups.add(uuids.get(index));
+        }
+        boolean[] found = findOnPrimary(current, lookups);
+        for (int i = 0; i < found.length; i++) {
+            known[unknown.get(i)] = found[i];
+        }
+        return known;
+    }
+
+    /**
+     * Records players on the primary
+     *
+     * @return For each UUID, true if it had no record before
+     */
+    private boolean[] write(List<UUID> uuids, long timestamp) {
+        // Players with an old key are known, so they are settled before anything is written;
+        // otherwise the script would count them and stamp a server before the check could
+        boolean[] legacy = buckets != null ? findLegacyKeys(connector.get(), uuids) : null;
+        if (legacy != null) {
+            return writeUnknown(legacy, unknown -> writeRecords(select(uuids, unknown), timestamp));
+        }
+        return writeRecords(uuids, timestamp);
+    }
+
+    private boolean[] writeRecords(List<UUID> uuids, long timestamp) {
+        if (metadata) {
+            return registerWithScript(uuids, timestamp);
+        }
+        return buckets != null ? addToBuckets(uuids, timestamp) : addAsKeys(uuids, timestamp);
+    }
+
+    /**
+     * Writes only the players not already known, reporting known players as not added
+     *
+     * @param writer Writes the players at the given indices, returning for each whether it was added
+     * @return For each player, true if it had no record before
+     */
+    private static boolean[] writeUnknown(boolean[] known, Function<int[], boolean[]> writer) {
+        int[] unknown = IntStream.range(0, known.length).filter(i -> !known[i]).toArray();
+
+        boolean[] added = new boolean[known.length];
+        if (unknown.length > 0) {
+            boolean[] written = writer.apply(unknown);
+            for (int i = 0; i < unknown.length; i++) {
+                added[unknown[i]] = written[i];
+            }
+        }
+        return added;
+    }
+
+    private static List<UUID> select(List<UUID> uuids, int[] indices) {
+        List<UUID> selected = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            selected.add(uuids.get(index));
+        }
+        return selected;
+    }
+
+    private static long[] select(long[] values, int[] indices) {
+        long[] selected = new long[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        return selected;
+    }
+
+    /**
+     * Records imported players with a plain SETNX or HSETNX each, so the metadata script
+     * never counts them or stamps a server
+     *
+     * @return For each UUID, true if its record was created
+     */
+    private boolean[] importNew(RedisConnector current, List<UUID> uuids, long[] timestamps) {
+        List<Integer> indices = IntStream.range(0, uuids.size()).boxed().toList();
+        List<Long> replies = buckets != null
+                ? current.pipelined(indices,
+                        index -> JedisClusterCRC16.getSlot(buckets.bucketKey(uuids.get(index))),
+                        (pipeline, index) -> pipeline.hsetnx(buckets.bucketKey(uuids.get(index)),
+                                FirstJoinBuckets.field(uuids.get(index)), FirstJoinBuckets.encodeTimestamp(timestamps[index])))
+                : current.pipelined(indices,
+                        index -> JedisClusterCRC16.getSlot(Constants.Redis.FIRSTJOIN_PREFIX + uuids.get(index)),
+                        (pipeline, index) -> pipeline.setnx(Constants.Redis.FIRSTJOIN_PREFIX + uuids.get(index),
+                                String.valueOf(timestamps[index])));
+
+        boolean[] added = new boolean[replies.size()];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = replies.get(i) == 1;
+        }
+        return added;
+    }
+
+    /**
+     * Checks which players already have a record on the replica.
+     * Replication lag can only hide a record, never invent one, so players found
+     * here are certainly known and the rest are settled on the primary.
+     *
+     * @return For each UUID, true if the replica has its record, or null if the replica could not be read
+     */
+    private boolean[] findOnReplica(RedisConnector current, List<UUID> uuids) {
+        List<Boolean> exists;
+        try {
+            exists = buckets != null
+                    ? current.pipelinedOnReplica(uuids,
+                            (pipeline, uuid) -> pipeline.hexists(buckets.bucketKey(uuid), FirstJoinBuckets.field(uuid)))
+                    : current.pipelinedOnReplica(uuids,
+                            (pipeline, uuid) -> pipeline.exists(Constants.Redis.FIRSTJOIN_PREFIX + uuid));
+        } catch (JedisException | IllegalStateException e) {
+            // A replica problem must not count against the primary, so just skip the replica;
+            // one that could not be reached has already been dropped by the connector
+            return null;
+        }
+
+        boolean[] known = new boolean[exists.size()];
+        for (int i = 0; i < known.length; i++) {
+            known[i] = exists.get(i);
+        }
+        return known;
+    }
+
+    /**
+     * Checks which players have a record on the primary, including old per-player keys
+     * until the migration has run
+     *
+     * @return For each UUID, true if it has a record
+     */
+    private boolean[] findOnPrimary(RedisConnector current, List<UUID> uuids) {
+        List<Boolean> exists;
+        if (buckets != null) {
+            exists = current.pipelined(uuids,
+                    uuid -> JedisClusterCRC16.getSlot(buckets.bucketKey(uuid)),
+                    (pipeline, uuid) -> pipeline.hexists(buckets.bucketKey(uuid), FirstJoinBuckets.field(uuid)));
+        } else {
+            List<String> keys = new ArrayList<>(uuids.size());
+            for (UUID uuid : uuids) {
+                keys.add(Constants.Redis.FIRSTJOIN_PREFIX + uuid);
+            }
+            exists = current.pipelined(keys, (pipeline, key) -> pipeline.exists(key));
+        }
+
+        boolean[] known = new boolean[exists.size()];
+        for (int i = 0; i < known.length; i++) {
+            known[i] = exists.get(i);
+        }
+
+        boolean[] legacy = buckets != null ? findLegacyKeys(current, uuids) : null;
+        if (legacy != null) {
+            for (int i = 0; i < known.length; i++) {
+                known[i] |= legacy[i];
+            }
+        }
+        return known;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @Override
+    public String describe() {
+        RedisConnector current = connector.get();
+        return "Redis" + (current != null ? " at " + current.describe() : "");
+    }
+
+    @Override
+    public void close() {
+        // The connector belongs to DataManager, which closes it
+    }
+
+    /**
+     * Records players with one string key each, using SETNX
+     *
+     * @return For each UUID, true if its key was created
+     */
+    private boolean[] addAsKeys(List<UUID> uuids, long now) {
+        String timestamp = String.valueOf(now);
+        List<String> keys = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            keys.add(Constants.Redis.FIRSTJOIN_PREFIX + uuid);
+        }
+
+        // One pipeline per server; in cluster mode keys are grouped by hash slot
+        List<Long> replies = connector.get().pipelined(keys, (pipeline, key) -> pipeline.setnx(key, timestamp));
+
+        boolean[] added = new boolean[replies.size()];
+        for (int i = 0; i < added.length; i++) {
+            // SETNX returns 1 if the key was set (i.e., player is new)
+            added[i] = replies.get(i) == 1;
+        }
+        cacheKeys(uuids, added, timestamp);
+        return added;
+    }
+
+    /**
+     * Records players in the bucketed hash layout, using HSETNX
+     *
+     * @return For each UUID, true if it had no record in either layout
+     */
+    private boolean[] addToBuckets(List<UUID> uuids, long now) {
+        byte[] timestamp = FirstJoinBuckets.encodeTimestamp(now);
+        List<Long> replies = connector.get().pipelined(uuids,
+                uuid -> JedisClusterCRC16.getSlot(buckets.bucketKey(uuid)),
+                (pipeline, uuid) -> pipeline.hsetnx(buckets.bucketKey(uuid), FirstJoinBuckets.field(uuid), timestamp));
+
+        boolean[] added = new boolean[replies.size()];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = replies.get(i) == 1;
+        }
+        return added;
+    }
+
+    /**
+     * Registers players with the Lua script, one call per player in one pipeline per server
+     *
+     * @return For each UUID, true if it had no record before
+     */
+    private boolean[] registerWithScript(List<UUID> uuids, long now) {
+        RedisConnector current = connector.get();
+        boolean cluster = current instanceof ClusterRedisConnector;
+
+        byte[] timestamp = buckets != null
+                ? FirstJoinBuckets.encodeTimestamp(now)
+                : String.valueOf(now).getBytes(StandardCharsets.US_ASCII);
+        byte[] totalCounter = Constants.Redis.NEW_PLAYERS_COUNTER.getBytes(StandardCharsets.UTF_8);
+        byte[] dailyCounter = dailyCounterKey(now).getBytes(StandardCharsets.UTF_8);
+
+        List<ScriptCall> calls = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            byte[] record;
+            byte[] serverKey;
+            byte[] field;
+            if (buckets != null) {
+                record = buckets.bucketKey(uuid);
+                serverKey = tagged(Constants.Redis.FIRSTJOIN_BUCKET_SERVER_PREFIX, record);
+                field = FirstJoinBuckets.field(uuid);
+            } else {
+                record = (Constants.Redis.FIRSTJOIN_PREFIX + uuid).getBytes(StandardCharsets.UTF_8);
+                serverKey = tagged(Constants.Redis.FIRSTJOIN_SERVER_PREFIX, record);
+                field = EMPTY;
+            }
+
+            // Every key a script touches must share a hash slot, so in cluster mode the counters are updated separately
+            List<byte[]> keys = cluster
+                    ? List.of(record, serverKey)
+                    : List.of(record, serverKey, totalCounter, dailyCounter);
+            calls.add(new ScriptCall(JedisClusterCRC16.getSlot(record), keys,
+                    List.of(field, timestamp, serverName, dailyCounterArg)));
+        }
+
+        List<Object> replies = current.pipelinedReplies(calls, ScriptCall::slot,
+                (pipeline, call) -> pipeline.evalsha(REGISTER_SHA, call.keys(), call.args()));
+
+        // A server that restarted, failed over or ran SCRIPT FLUSH has forgotten the script;
+        // nothing ran for those calls, so load it everywhere and send just them again
+        List<Integer> unknownScript = new ArrayList<>();
+        for (int i = 0; i < replies.size(); i++) {
+            if (replies.get(i) instanceof JedisNoScriptException) {
+                unknownScript.add(i);
+            }
+        }
+        if (!unknownScript.isEmpty()) {
+            current.forEachPrimary(jedis -> jedis.scriptLoad(REGISTER_SCRIPT));
+
+            List<ScriptCall> retries = new ArrayList<>(unknownScript.size());
+            for (int index : unknownScript) {
+                retries.add(calls.get(index));
+            }
+            List<Object> retried = current.pipelinedReplies(retries, ScriptCall::slot,
+                    (pipeline, call) -> pipeline.evalsha(REGISTER_SHA, call.keys(), call.args()));
+            for (int i = 0; i < unknownScript.size(); i++) {
+                replies.set(unknownScript.get(i), retried.get(i));
+            }
+        }
+
+        boolean[] added = new boolean[replies.size()];
+        int newPlayers = 0;
+        for (int i = 0; i < added.length; i++) {
+            if (replies.get(i) instanceof JedisDataException error) {
+                throw error;
+            }
+            added[i] = (Long) replies.get(i) == 1;
+            if (added[i]) {
+                newPlayers++;
+            }
+        }
+
+        if (cluster && newPlayers > 0) {
+            incrementCounters(current, newPlayers, now);
+        }
+
+        if (buckets == null) {
+            cacheKeys(uuids, added, String.valueOf(now));
+        }
+        return added;
+    }
+
+    /**
+     * Adds new players to the network-wide counters in one round trip.
+     * Both counters share a hash tag, so they live on the same cluster node.
+     */
+    private void incrementCounters(RedisConnector current, int newPlayers, long now) {
+        String dailyCounter = dailyCounterKey(now);
+        try (Jedis jedis = current.getResource(Constants.Redis.NEW_PLAYERS_COUNTER)) {
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.incrBy(Constants.Redis.NEW_PLAYERS_COUNTER, newPlayers);
+            pipeline.incrBy(dailyCounter, newPlayers);
+            pipeline.expire(dailyCounter, dailyCounterSeconds);
+            pipeline.sync();
+        }
+    }
+
+    /**
+     * Until the migration has run, a player missing from the buckets may still have an old key
+     *
+     * @return For each UUID, true if it has an old key, or null once the old keys are known to be gone
+     */
+    private boolean[] findLegacyKeys(RedisConnector current, List<UUID> uuids) {
+        if (legacyKeysMigrated.getAsBoolean()) {
+            return null;
+        }
+
+        List<String> oldKeys = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            oldKeys.add(Constants.Redis.FIRSTJOIN_PREFIX + uuid);
+        }
+
+        List<Boolean> exists = current.pipelined(oldKeys, (pipeline, key) -> pipeline.exists(key));
+        boolean[] legacy = new boolean[exists.size()];
+        for (int i = 0; i < legacy.length; i++) {
+            legacy[i] = exists.get(i);
+        }
+        return legacy;
+    }
+
+    /**
+     * Records first join keys that already existed before a SETNX.
+     * Only presence is read back, so the attempted timestamp stands in for the stored one.
+     * Keys this write created are left out: creating them sends a broadcast invalidation
+     * that would evict the entry again, and tracking can only skip a connection's own
+     * writes (NOLOOP) on the tracking connection, not on pooled ones.
+     */
+    private void cacheKeys(List<UUID> uuids, boolean[] added, String timestamp) {
+        ClientSideCache cache = clientCache.get();
+        if (cache == null) {
+            return;
+        }
+        for (int i = 0; i < added.length; i++) {
+            if (!added[i]) {
+                cache.put(Constants.Redis.FIRSTJOIN_PREFIX + uuids.get(i), timestamp);
+            }
+        }
+    }
+
+    /**
+     * Gets the key counting new players on the UTC day of the given time
+     */
+    private static String dailyCounterKey(long timestamp) {
+        return Constants.Redis.NEW_PLAYERS_COUNTER + ":" + Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    /**
+     * Builds prefix{key}, which hashes to the same cluster slot as key itself
+     */
+    private static byte[] tagged(String prefix, byte[] key) {
+        byte[] start = (prefix + "{").getBytes(StandardCharsets.US_ASCII);
+        byte[] tagged = new byte[start.length + key.length + 1];
+        System.arraycopy(start, 0, tagged, 0, start.length);
+        System.arraycopy(key, 0, tagged, start.length, key.length);
+        tagged[tagged.length - 1] = '}';
+        return tagged;
+    }
+
+    private static byte[] sha1(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).getBytes(StandardCharsets.US_ASCII);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Checks Redis in the background so nothing on the join path has to.
+ * Every primary is pinged on a fixed interval; round-trip times go into a rolling
+ * window for percentiles, and the result is kept in a flag that is free to read.
+ * A failed check opens the circuit breaker straight away, even when no players are joining.
+ * A replica dropped for failing is selected again here, at most once per retry interval,
+ * and a client-side cache that lost its invalidation stream is replaced.
+ */
+public class RedisHealthMonitor {
+
+    private static final int SAMPLE_WINDOW = 256;
+
+    // Replica selection pings every candidate, so a missing replica is looked for at most this often
+    private static final long REPLICA_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Point-in-time view of Redis health
+     *
+     * @param available Whether the last check reached every primary
+     * @param p50Micros Median round trip over the recent window, in microseconds
+     * @param p95Micros 95th percentile round trip, in microseconds
+     * @param p99Micros 99th percentile round trip, in microseconds
+     * @param samples Number of round trips in the window
+     * @param lastCheckMillis Epoch millis of the last completed check, 0 if none yet
+     */
+    public record Snapshot(boolean available, long p50Micros, long p95Micros, long p99Micros,
+                           int samples, long lastCheckMillis) {
+    }
+
+    private final Supplier<RedisConnector> connector;
+    private final RedisCircuitBreaker breaker;
+    private final IoExecutor ioExecutor;
+    private final LoggerUtils logger;
+    private final Runnable replicaSelector;
+    private final Runnable clientCacheRestarter;
+    private final long intervalMillis;
+    private long nextReplicaAttempt = System.nanoTime() + REPLICA_RETRY_NANOS;
+
+    // Rolling window of round trips in nanoseconds
+    private final long[] samples = new long[SAMPLE_WINDOW];
+    private int sampleIndex;
+    private int sampleCount;
+
+    private volatile boolean available = false;
+    private volatile long lastCheckMillis;
+    private final CountDownLatch stopRequested = new CountDownLatch(1);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Creates a new monitor
+     *
+     * @param connector Supplies the current connector, which changes on reconnect
+     * @param breaker The circuit breaker to open when a check fails
+     * @param ioExecutor The executor that runs the checks
+     * @param logger The logger for availability changes
+     * @param replicaSelector Selects a replica if replica reads are enabled and none is in use
+     * @param clientCacheRestarter Replaces the client-side cache if its invalidation stream was lost
+     * @param intervalMillis Time between checks
+     */
+    RedisHealthMonitor(Supplier<RedisConnector> connector, RedisCircuitBreaker breaker, IoExecutor ioExecutor,
+                       LoggerUtils logger, Runnable replicaSelector, Runnable clientCacheRestarter, long intervalMillis) {
+        this.connector = connector;
+        this.breaker = breaker;
+        this.ioExecutor = ioExecutor;
+        this.logger = logger;
+        this.replicaSelector = replicaSelector;
+        this.clientCacheRestarter = clientCacheRestarter;
+        this.intervalMillis = Math.max(100, intervalMillis);
+    }
+
+    /**
+     * Starts checking in the background
+     */
+    void start() {
+        if (!ioExecutor.startLoop(this::runLoop)) {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Records that a connection was just established and answered
+     */
+    void markAvailable() {
+        available = true;
+    }
+
+    /**
+     * Checks whether Redis answered the last health check. Never blocks.
+     *
+     * @return true if every primary answered
+     */
+    boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Gets the current health and round-trip percentiles
+     *
+     * @return A snapshot of the monitor's state
+     */
+    public Snapshot snapshot() {
+        long[] sorted;
+        synchronized (samples) {
+            sorted = Arrays.copyOf(samples, sampleCount);
+        }
+        Arrays.sort(sorted);
+
+        return new Snapshot(available,
+                percentileMicros(sorted, 0.50),
+                percentileMicros(sorted, 0.95),
+                percentileMicros(sorted, 0.99),
+                sorted.length,
+                lastCheckMillis);
+    }
+
+    /**
+     * Stops checking and waits for an in-flight check to finish
+     *
+     * @param timeoutMillis Maximum time to wait
+     */
+    void shutdown(long timeoutMillis) {
+        stopRequested.countDown();
+
+        try {
+            stopped.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        try {
+            do {
+                ioExecutor.withPermit(IoExecutor.Resource.REDIS, () -> {
+                    check();
+                    return null;
+                });
+                // Replicas and the cache have their own connections, so these need no permit
+                retryReplica();
+                restartClientCache();
+            } while (!stopRequested.await(intervalMillis, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Redis health monitor stopped unexpectedly", e);
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private void check() {
+        RedisConnector current = connector.get();
+        if (current == null || current.isClosed()) {
+            setAvailable(false, "no open connection");
+            return;
+        }
+
+        try {
+            current.forEachPrimary(jedis -> {
+                long start = System.nanoTime();
+                jedis.ping();
+                record(System.nanoTime() - start);
+            });
+            setAvailable(true, null);
+        } catch (Exception e) {
+            setAvailable(false, e.getMessage());
+            // Tripping again while open would keep pushing the reconnect back
+            if (breaker.getState() != RedisCircuitBreaker.State.OPEN) {
+                breaker.trip("health check failed");
+            }
+        } finally {
+            lastCheckMillis = System.currentTimeMillis();
+        }
+    }
+
+    private void retryReplica() {
+        RedisConnector current = connector.get();
+        if (!available || current == null || current.hasReplica() || System.nanoTime() < nextReplicaAttempt) {
+            return;
+        }
+
+        nextReplicaAttempt = System.nanoTime() + REPLICA_RETRY_NANOS;
+        try {
+            replicaSelector.run();
+        } catch (Exception e) {
+            logger.debug("Replica selection failed: " + e.getMessage());
+        }
+    }
+
+    private void restartClientCache() {
+        if (!available) {
+            return;
+        }
+
+        try {
+            clientCacheRestarter.run();
+        } catch (Exception e) {
+            logger.debug("Client-side cache restart failed: " + e.getMessage());
+        }
+    }
+
+    private void setAvailable(boolean nowAvailable, String reason) {
+        if (available != nowAvailable) {
+            if (nowAvailable) {
+                logger.debug("Redis health check passing again");
+            } else {
+                logger.debug("Redis health check failing: " + reason);
+            }
+        }
+        available = nowAvailable;
+    }
+
+    private void record(long roundTripNanos) {
+        synchronized (samples) {
+            samples[sampleIndex] = roundTripNanos;
+            sampleIndex = (sampleIndex + 1) % samples.length;
+            if (sampleCount < samples.length) {
+                sampleCount++;
+            }
+        }
+    }
+
+    private static long percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Pooled connections to one Redis replica, used for reads that can tolerate replication lag.
+ * Replicas only ever lag behind the primary, so a record found on a replica is certain to
+ * exist, while one that is missing may just not have arrived yet.
+ */
+final class ReplicaReader implements Closeable {
+
+    private static final int PINGS_PER_CANDIDATE = 3;
+
+    private final HostAndPort node;
+    private final JedisPool pool;
+
+    private ReplicaReader(HostAndPort node, JedisPool pool) {
+        this.node = node;
+        this.pool = pool;
+    }
+
+    /**
+     * Connects to the candidate with the lowest round trip time
+     *
+     * @param candidates The replicas to choose from
+     * @param poolConfig Pool settings for the chosen replica
+     * @param clientConfig Timeouts and credentials for the replicas
+     * @return A reader for the nearest replica, or null if none answered
+     */
+    static ReplicaReader nearest(Collection<HostAndPort> candidates, JedisPoolConfig poolConfig, JedisClientConfig clientConfig) {
+        HostAndPort nearest = null;
+        long nearestNanos = Long.MAX_VALUE;
+
+        for (HostAndPort candidate : candidates) {
+            try (Jedis jedis = new Jedis(candidate, clientConfig)) {
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < PINGS_PER_CANDIDATE; i++) {
+                    long start = System.nanoTime();
+                    jedis.ping();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                if (best < nearestNanos) {
+                    nearest = candidate;
+                    nearestNanos = best;
+                }
+            } catch (RuntimeException e) {
+                // Unreachable replicas are simply not chosen
+            }
+        }
+
+        return nearest != null ? new ReplicaReader(nearest, new JedisPool(poolConfig, nearest, clientConfig)) : null;
+    }
+
+    /**
+     * Runs one read per item in a single pipeline on the replica
+     *
+     * @param items The items to read
+     * @param command Queues the read for an item on a pipeline
+     * @param <K> The item type
+     * @param <T> The reply type
+     * @return The replies in the same order as the items
+     */
+    @SuppressWarnings("unchecked")
+    <K, T> List<T> pipelined(List<K> items, BiFunction<Pipeline, K, Response<T>> command) {
+        List<Object> replies;
+        try (Jedis jedis = pool.getResource()) {
+            replies = RedisConnector.pipelineOn(jedis, items, command);
+        }
+
+        for (Object reply : replies) {
+            if (reply instanceof JedisDataException error) {
+                throw error;
+            }
+        }
+        return (List<T>) replies;
+    }
+
+    /**
+     * Gets the replica reads go to
+     *
+     * @return The replica's address
+     */
+    HostAndPort node() {
+        return node;
+    }
+
+    @Override
+    public void close() {
+        if (!pool.isClosed()) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisSentinelPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Connector for a primary with replicas monitored by Redis Sentinel.
+ * The current primary is asked from the sentinels, and the pool follows their
+ * +switch-master announcements, so a failover needs no config change or restart.
+ */
+class SentinelRedisConnector extends RedisConnector {
+
+    private final JedisSentinelPool pool;
+    private final String masterName;
+    private final Set<HostAndPort> sentinels;
+    private final JedisClientConfig clientConfig;
+    private final JedisClientConfig sentinelConfig;
+
+    SentinelRedisConnector(String masterName, Set<HostAndPort> sentinels, JedisPoolConfig poolConfig,
+                           JedisClientConfig clientConfig, JedisClientConfig sentinelConfig) {
+        this.masterName = masterName;
+        this.sentinels = sentinels;
+        this.clientConfig = clientConfig;
+        this.sentinelConfig = sentinelConfig;
+        this.pool = new JedisSentinelPool(masterName, sentinels, poolConfig, clientConfig, sentinelConfig);
+    }
+
+    /**
+     * Asks the sentinels for the primary's healthy replicas
+     *
+     * @return The replicas' addresses, empty if no sentinel answered
+     */
+    List<HostAndPort> discoverReplicas() {
+        for (HostAndPort sentinel : sentinels) {
+            try (Jedis jedis = new Jedis(sentinel, sentinelConfig)) {
+                List<HostAndPort> replicas = new ArrayList<>();
+                for (Map<String, String> replica : jedis.sentinelReplicas(masterName)) {
+                    String flags = replica.getOrDefault("flags", "");
+                    if (flags.contains("s_down") || flags.contains("o_down") || flags.contains("disconnected")) {
+                        continue;
+                    }
+                    replicas.add(new HostAndPort(replica.get("ip"), Integer.parseInt(replica.get("port"))));
+                }
+                return replicas;
+            } catch (RuntimeException e) {
+                // Try the next sentinel
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    Jedis getResourceForSlot(int slot) {
+        return pool.getResource();
+    }
+
+    @Override
+    <K, T> List<Object> pipelinedReplies(List<K> items, ToIntFunction<K> slotOf,
+                                         BiFunction<Pipeline, K, Response<T>> command) {
+        try (Jedis jedis = pool.getResource()) {
+            return pipelineOn(jedis, items, command);
+        }
+    }
+
+    @Override
+    void forEachPrimary(Consumer<Jedis> action) {
+        try (Jedis jedis = pool.getResource()) {
+            action.accept(jedis);
+        }
+    }
+
+    @Override
+    List<HostAndPort> primaryNodes() {
+        return List.of(pool.getCurrentHostMaster());
+    }
+
+    @Override
+    Jedis getPrimaryResource(HostAndPort node) {
+        // After a failover the pool serves the new primary, which is where the caller's work belongs anyway
+        return pool.getResource();
+    }
+
+    @Override
+    List<Jedis> openTrackingConnections() {
+        HostAndPort node = pool.getCurrentHostMaster();
+        List<Jedis> connections = new ArrayList<>(2);
+        try {
+            connections.add(new Jedis(node, clientConfig));
+            connections.add(new Jedis(node, clientConfig));
+        } catch (RuntimeException e) {
+            connections.forEach(Jedis::close);
+            throw e;
+        }
+        return connections;
+    }
+
+    @Override
+    boolean isClosed() {
+        return pool.isClosed();
+    }
+
+    @Override
+    String describe() {
+        return "sentinel master " + masterName + " at " + pool.getCurrentHostMaster();
+    }
+
+    @Override
+    public void close() {
+        closeReplica();
+        if (!pool.isClosed()) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package dev.lsdmc.chatGe3ks.data;
+
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Connector for a single Redis server backed by a {@link JedisPool}.
+ */
+class StandaloneRedisConnector extends RedisConnector {
+
+    private final JedisPool pool;
+    private final String host;
+    private final int port;
+    private final JedisClientConfig clientConfig;
+
+    StandaloneRedisConnector(JedisPoolConfig poolConfig, String host, int port, int timeout, String password) {
+        this.host = host;
+        this.port = port;
+
+        DefaultJedisClientConfig.Builder clientConfig = DefaultJedisClientConfig.builder().timeoutMillis(timeout);
+        if (password != null && !password.isEmpty()) {
+            clientConfig.password(password);
+        }
+        this.clientConfig = clientConfig.build();
+
+        if (password != null && !password.isEmpty()) {
+            this.pool = new JedisPool(poolConfig, host, port, timeout, password);
+        } else {
+            this.pool = new JedisPool(poolConfig, host, port, timeout);
+        }
+    }
+
+    @Override
+    Jedis getResourceForSlot(int slot) {
+        return pool.getResource();
+    }
+
+    @Override
+    <K, T> List<Object> pipelinedReplies(List<K> items, ToIntFunction<K> slotOf,
+                                         BiFunction<Pipeline, K, Response<T>> command) {
+        try (Jedis jedis = pool.getResource()) {
+            return pipelineOn(jedis, items, command);
+        }
+    }
+
+    @Override
+    void forEachPrimary(Consumer<Jedis> action) {
+        try (Jedis jedis = pool.getResource()) {
+            action.accept(jedis);
+        }
+    }
+
+    @Override
+    List<HostAndPort> primaryNodes() {
+        return List.of(new HostAndPort(host, port));
+    }
+
+    @Override
+    Jedis getPrimaryResource(HostAndPort node) {
+        return pool.getResource();
+    }
+
+    @Override
+    List<Jedis> openTrackingConnections() {
+        HostAndPort node = new HostAndPort(host, port);
+        List<Jedis> connections = new ArrayList<>(2);
+        try {
+            connections.add(new Jedis(node, clientConfig));
+            connections.add(new Jedis(node, clientConfig));
+        } catch (RuntimeException e) {
+            connections.forEach(Jedis::close);
+            throw e;
+        }
+        return connections;
+    }
+
+    @Override
+    boolean isClosed() {
+        return pool.isClosed();
+    }
+
+    @Override
+    String describe() {
+        return host + ":" + port;
+    }
+
+    @Override
+    public void close() {
+        closeReplica();
+        if (!pool.isClosed()) {
+            pool.close();
+        }
+    }
+}
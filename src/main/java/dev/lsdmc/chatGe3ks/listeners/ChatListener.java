@@ -2,36 +2,53 @@ package dev.lsdmc.chatGe3ks.listeners;
 
 import dev.lsdmc.chatGe3ks.ChatGe3ks;
 import dev.lsdmc.chatGe3ks.rewards.RewardsManager;
+import dev.lsdmc.chatGe3ks.tasks.MainThreadQueue;
+import dev.lsdmc.chatGe3ks.tasks.TimerWheel;
 import dev.lsdmc.chatGe3ks.util.Constants;
 import dev.lsdmc.chatGe3ks.util.LoggerUtils;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
+import dev.lsdmc.chatGe3ks.util.UuidLongMap;
+import dev.lsdmc.chatGe3ks.util.WelcomePhrases;
+import dev.lsdmc.chatGe3ks.welcome.NewcomerIndex;
+import dev.lsdmc.chatGe3ks.welcome.WelcomeBroadcaster;
+import dev.lsdmc.chatGe3ks.welcome.WelcomeRateLimiter;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
-import java.util.regex.Pattern;
 
 public class ChatListener implements Listener {
 
     private final ChatGe3ks plugin;
     private final RewardsManager rewardsManager;
     private final LoggerUtils logger;
+    private final MainThreadQueue mainThreadQueue;
 
-    // Map to track new joiners and their join timestamps, using ConcurrentHashMap for thread safety
-    private final ConcurrentHashMap<UUID, Long> welcomeWindowMap = new ConcurrentHashMap<>();
+    // New joiners and their join timestamps; read from async chat threads without locking
+    private final UuidLongMap welcomeWindowMap = new UuidLongMap();
 
-    // Welcome window duration in milliseconds
+    // Pending expiry of each welcome window and who to credit for welcomes; only touched on the main thread
+    private final Map<UUID, TimerWheel.Timeout> windowExpiries = new HashMap<>();
+    private final NewcomerIndex newcomers;
+    private final WelcomeBroadcaster broadcaster;
+
+    // Drops repeated welcomes on the chat thread before they cost anything
+    private final WelcomeRateLimiter rateLimiter;
+    private final TimerWheel timerWheel;
+
+    // Welcome window duration in milliseconds and in ticks
     private final long welcomeWindowDuration;
+    private final long welcomeWindowTicks;
 
-    // Regex pattern for welcome message detection
-    private static final Pattern WELCOME_PATTERN = Pattern.compile("^\\s*welcome\\s*$", Pattern.CASE_INSENSITIVE);
+    // Compiled phrases that count as a welcome
+    private final WelcomePhrases welcomePhrases;
 
     /**
      * Creates a new ChatListener
@@ -39,18 +56,54 @@ public class ChatListener implements Listener {
      * @param plugin The plugin instance
      * @param rewardsManager The rewards manager
      * @param welcomeWindowDurationSeconds Duration of welcome window in seconds
+     * @param maxGreeters How many players can be rewarded for welcoming one newcomer
+     * @param welcomePhrases The phrases that count as a welcome
+     * @param timerWheel The wheel that expires welcome windows
+     * @param broadcaster Announces rewarded welcomes
+     * @param rateLimiter Limits how often each player can attempt a welcome
      */
-    public ChatListener(ChatGe3ks plugin, RewardsManager rewardsManager, int welcomeWindowDurationSeconds) {
+    public ChatListener(ChatGe3ks plugin, RewardsManager rewardsManager, int welcomeWindowDurationSeconds,
+                        int maxGreeters, WelcomePhrases welcomePhrases, TimerWheel timerWheel,
+                        WelcomeBroadcaster broadcaster, WelcomeRateLimiter rateLimiter) {
         this.plugin = plugin;
         this.rewardsManager = rewardsManager;
         this.welcomeWindowDuration = Math.max(1, welcomeWindowDurationSeconds) * 1000L;
+        this.welcomeWindowTicks = Math.max(1, welcomeWindowDurationSeconds) * (long) Constants.Time.TICKS_PER_SECOND;
+        this.timerWheel = timerWheel;
+        this.newcomers = new NewcomerIndex(maxGreeters);
+        this.broadcaster = broadcaster;
+        this.rateLimiter = rateLimiter;
+        this.welcomePhrases = welcomePhrases;
         this.logger = plugin.getLoggerUtils();
+        this.mainThreadQueue = plugin.getMainThreadQueue();
 
         logger.info("Welcome window duration set to " + welcomeWindowDurationSeconds + " seconds");
+
+        // Players already online after a reload
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            rateLimiter.track(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Gives joining players a rate limiter slot
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        rateLimiter.track(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Frees the rate limiter slot of players who leave
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        rateLimiter.untrack(event.getPlayer().getUniqueId());
     }
 
     /**
      * Registers a new join time for a player.
+     * Must be called on the main thread, which owns the timer wheel.
      *
      * @param player The newly joined player.
      * @return true if registration was successful
@@ -60,7 +113,15 @@ public class ChatListener implements Listener {
             return false;
         }
 
-        welcomeWindowMap.put(player.getUniqueId(), System.currentTimeMillis());
+        UUID uuid = player.getUniqueId();
+        welcomeWindowMap.put(uuid, System.currentTimeMillis());
+        newcomers.add(uuid, player.getName());
+
+        // A rejoin restarts the window
+        TimerWheel.Timeout previous = windowExpiries.put(uuid, timerWheel.schedule(welcomeWindowTicks, () -> expireWindow(uuid)));
+        if (previous != null) {
+            previous.cancel();
+        }
 
         // Log this at fine level since it's a common operation
         logger.debug("Registered new player for welcome window: " + player.getName());
@@ -69,17 +130,24 @@ public class ChatListener implements Listener {
     }
 
     /**
-     * Handles player chat events to detect welcome messages
-     * Uses MONITOR priority to avoid interfering with other chat plugins
+     * Checks a chat message for a welcome. Called on the chat thread by the listener for
+     * the server's chat event, see {@link PaperChatListener} and {@link LegacyChatListener}.
+     *
+     * @param sender The player who sent the message
+     * @param message The plain text of the message
      */
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerChat(AsyncPlayerChatEvent event) {
-        String message = event.getMessage();
+    public void handleChatMessage(Player sender, String message) {
+        // One pass over the message for all phrases, without allocating
+        if (!welcomePhrases.matches(message)) {
+            return;
+        }
 
-        // Use regex pattern matching for more flexible welcome detection
-        if (WELCOME_PATTERN.matcher(message).matches()) {
-            processWelcomeMessage(event.getPlayer());
+        // Spam stops here, before any lookup or scheduling
+        if (!rateLimiter.tryAcquire(sender.getUniqueId())) {
+            return;
         }
+
+        processWelcomeMessage(sender);
     }
 
     /**
@@ -92,84 +160,75 @@ public class ChatListener implements Listener {
             return;
         }
 
-        final UUID uuid = sender.getUniqueId();
-        final Long joinTime = welcomeWindowMap.get(uuid);
-
-        if (joinTime != null) {
-            final long currentTime = System.currentTimeMillis();
-            final long timeElapsed = currentTime - joinTime;
-
-            if (timeElapsed <= welcomeWindowDuration) {
-                // Process reward on the main thread
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    try {
-                        // Only process if the player is still online
-                        if (sender.isOnline()) {
-                            boolean rewardGiven = rewardsManager.giveRandomReward(sender);
-
-                            if (rewardGiven) {
-                                logger.debug("Gave welcome reward to player: " + sender.getName());
-                                // Remove from map regardless of reward success
-                                welcomeWindowMap.remove(uuid);
-
-                                // Send message to other online players about this welcoming action
-                                sendWelcomeActionMessage(sender);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error giving welcome reward to " + sender.getName(), e);
+        // Expired windows are removed by the timer wheel, so an empty map means nobody to welcome
+        if (welcomeWindowMap.isEmpty()) {
+            return;
+        }
+
+        // Attribute and reward on the main thread, which owns the newcomer index
+        mainThreadQueue.submit(() -> {
+            try {
+                if (!sender.isOnline()) {
+                    return;
+                }
+
+                UUID greeter = sender.getUniqueId();
+                UUID newcomer = newcomers.resolve(greeter);
+                if (newcomer == null) {
+                    return;
+                }
+
+                boolean rewardGiven = rewardsManager.giveRandomReward(sender);
+                if (rewardGiven) {
+                    String newcomerName = newcomers.nameOf(newcomer);
+                    logger.debug("Gave welcome reward to " + sender.getName() + " for welcoming " + newcomerName);
+
+                    if (newcomers.recordGreeting(newcomer, greeter)) {
+                        closeWindow(newcomer);
                     }
-                });
-            } else {
-                // Window expired, remove entry
-                welcomeWindowMap.remove(uuid);
-                logger.debug("Welcome window expired for player: " + sender.getName());
+
+                    // Announced together with the other welcomes for this newcomer
+                    broadcaster.record(sender, newcomer, newcomerName);
+                }
+            } catch (Exception e) {
+                logger.error("Error giving welcome reward to " + sender.getName(), e);
             }
-        }
+        });
     }
 
     /**
-     * Sends a message to all players about a welcoming action
+     * Removes a welcome window when its timeout fires
      *
-     * @param welcomer The player who welcomed the newcomer
+     * @param uuid The player whose window expired
      */
-    private void sendWelcomeActionMessage(Player welcomer) {
-        Component message = Component.text(welcomer.getName())
-                .color(NamedTextColor.GOLD)
-                .append(Component.text(" has welcomed a new player and received a reward!")
-                        .color(NamedTextColor.YELLOW));
-
-        // Send to all players except the welcomer
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!player.equals(welcomer)) {
-                plugin.adventure().player(player).sendMessage(message);
-            }
-        }
+    private void expireWindow(UUID uuid) {
+        windowExpiries.remove(uuid);
+        welcomeWindowMap.remove(uuid);
+        newcomers.remove(uuid);
+        logger.debug("Welcome window expired for player: " + uuid);
     }
 
     /**
-     * Cleans up expired entries from the welcome window map.
+     * Removes a welcome window before it expires
      *
-     * @return The number of entries removed
+     * @param uuid The player whose window to close
      */
-    public int cleanupExpired() {
-        int countBefore = welcomeWindowMap.size();
-
-        if (countBefore == 0) {
-            return 0;
-        }
-
-        long now = System.currentTimeMillis();
-        welcomeWindowMap.entrySet().removeIf(entry -> (now - entry.getValue()) > welcomeWindowDuration);
-
-        int countAfter = welcomeWindowMap.size();
-        int removed = countBefore - countAfter;
-
-        if (removed > 0) {
-            logger.debug("Cleaned up " + removed + " expired welcome entries");
+    private void closeWindow(UUID uuid) {
+        TimerWheel.Timeout expiry = windowExpiries.remove(uuid);
+        if (expiry != null) {
+            expiry.cancel();
         }
+        welcomeWindowMap.remove(uuid);
+        newcomers.remove(uuid);
+    }
 
-        return removed;
+    /**
+     * Gets the number of welcome attempts dropped by the rate limiter
+     *
+     * @return The rejected attempt count
+     */
+    public long getRateLimitedWelcomeCount() {
+        return rateLimiter.rejected();
     }
 
     /**
@@ -192,12 +251,7 @@ public class ChatListener implements Listener {
             return false;
         }
 
-        Long joinTime = welcomeWindowMap.get(player.getUniqueId());
-        if (joinTime == null) {
-            return false;
-        }
-
-        return (System.currentTimeMillis() - joinTime) <= welcomeWindowDuration;
+        return welcomeWindowMap.containsKey(player.getUniqueId());
     }
 
     /**
@@ -211,19 +265,13 @@ public class ChatListener implements Listener {
             return -1;
         }
 
-        Long joinTime = welcomeWindowMap.get(player.getUniqueId());
-        if (joinTime == null) {
-            return -1;
-        }
-
-        long elapsed = System.currentTimeMillis() - joinTime;
-        long remaining = welcomeWindowDuration - elapsed;
-
-        if (remaining <= 0) {
-            welcomeWindowMap.remove(player.getUniqueId());
+        long joinTime = welcomeWindowMap.get(player.getUniqueId(), -1);
+        if (joinTime < 0) {
             return -1;
         }
 
-        return (int)(remaining / 1000);
+        // The window closes on a tick boundary, which can lag behind the clock
+        long remaining = welcomeWindowDuration - (System.currentTimeMillis() - joinTime);
+        return (int) (Math.max(0, remaining) / 1000);
     }
 }
\ No newline at end of file
@@ -7,13 +7,20 @@ import dev.lsdmc.chatGe3ks.util.LoggerUtils;
 import dev.lsdmc.chatGe3ks.welcome.WelcomeMessagesManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.event.player.PlayerLoginEvent;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 public class JoinListener implements Listener {
@@ -27,6 +34,24 @@ public class JoinListener implements Listener {
     // Regex pattern for placeholder replacement
     private static final Pattern PLAYER_PLACEHOLDER_PATTERN = Pattern.compile("\\{player\\}", Pattern.CASE_INSENSITIVE);
 
+    // Lookups for logins that never reached the join are dropped after this long
+    private static final long PENDING_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * A lookup started before the player joined
+     *
+     * @param result The pending lookup
+     * @param startedAt System.nanoTime() when the lookup started
+     */
+    private record Pending(CompletableFuture<Boolean> result, long startedAt) {
+    }
+
+    // Known player lookups started at pre-login, true if the player has joined before
+    private final Map<UUID, Pending> prefetches = new ConcurrentHashMap<>();
+
+    // First join checks started once the login went through, true if this is the first join
+    private final Map<UUID, Pending> registrations = new ConcurrentHashMap<>();
+
     public JoinListener(ChatGe3ks plugin, DataManager dataManager, WelcomeMessagesManager welcomeMessagesManager) {
         this.plugin = plugin;
         this.dataManager = dataManager;
@@ -35,6 +60,45 @@ public class JoinListener implements Listener {
         this.miniMessage = MiniMessage.miniMessage();
     }
 
+    /**
+     * Starts a read-only first join lookup while the login is still being processed off the main thread,
+     * so returning players are usually settled by the time they join.
+     * Nothing is recorded here, since the login can still be refused; newcomers are registered once it is final.
+     * Monitor priority so logins denied by other plugins are not looked up.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        evictStaleLookups();
+
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        OfflinePlayer offlinePlayer = plugin.getServer().getOfflinePlayer(event.getUniqueId());
+        CompletableFuture<Boolean> known = dataManager.isKnownPlayerAsync(event.getUniqueId(), offlinePlayer.hasPlayedBefore());
+        prefetches.put(event.getUniqueId(), new Pending(known, System.nanoTime()));
+    }
+
+    /**
+     * Registers the player as soon as the login is final, chained on the pre-login lookup,
+     * so newcomers are usually decided by the time they join. Denied logins only drop the lookup.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        Player player = event.getPlayer();
+        Pending prefetch = prefetches.remove(player.getUniqueId());
+
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            if (prefetch != null) {
+                logger.debug("Login of " + player.getName() + " was denied after its first join lookup");
+            }
+            return;
+        }
+
+        registrations.put(player.getUniqueId(),
+                new Pending(checkFirstJoin(player, prefetch), System.nanoTime()));
+    }
+
     /**
      * Handles player join events
      * Priority set to NORMAL so other plugins can register earlier/later if needed
@@ -43,29 +107,68 @@ public class JoinListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         final Player player = event.getPlayer();
 
-        // Run Redis check async to not block the main thread
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                try {
-                    // Check if this is the player's first join across the network using Redis
-                    final boolean isFirstJoin = dataManager.isFirstJoin(player.getUniqueId());
-
-                    // Switch back to the main thread for event firing and messaging
-                    new BukkitRunnable() {
-                        @Override
-                        public void run() {
-                            if (isFirstJoin && player.isOnline()) {
-                                handleFirstJoin(player);
-                            }
-                        }
-                    }.runTask(plugin);
-
-                } catch (Exception e) {
-                    logger.error("Error checking first join status for " + player.getName(), e);
-                }
+        // Normally started at login; started here only if the login event was never seen
+        Pending registration = registrations.remove(player.getUniqueId());
+        CompletableFuture<Boolean> lookup = registration != null
+                ? registration.result()
+                : checkFirstJoin(player, prefetches.remove(player.getUniqueId()));
+
+        // Answered locally, so the welcome goes out on this tick
+        if (lookup.isDone() && !lookup.isCompletedExceptionally()) {
+            if (lookup.join()) {
+                handleFirstJoin(player);
+            }
+            return;
+        }
+
+        // Returning players are answered locally; possible newcomers get a batched Redis check
+        // off the main thread, and only first joins hop back to it
+        lookup.whenComplete((isFirstJoin, error) -> {
+            if (error != null) {
+                logger.error("Error checking first join status for " + player.getName(), error);
+                return;
             }
-        }.runTaskAsynchronously(plugin);
+
+            if (isFirstJoin && plugin.isEnabled()) {
+                // Switch back to the main thread for event firing and messaging
+                plugin.getMainThreadQueue().submit(() -> {
+                    if (player.isOnline()) {
+                        handleFirstJoin(player);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Starts the first join check for a player whose login went through. A player the
+     * prefetch found is answered locally; anyone else is registered once the prefetch,
+     * finished or not, has answered, so the lookup is never sent twice.
+     *
+     * @param player The player
+     * @param prefetch The pre-login lookup, or null if there was none
+     * @return Future completed with true if this is the first join
+     */
+    private CompletableFuture<Boolean> checkFirstJoin(Player player, Pending prefetch) {
+        UUID uuid = player.getUniqueId();
+        boolean playedBefore = player.hasPlayedBefore();
+        if (prefetch == null) {
+            return dataManager.isFirstJoinAsync(uuid, playedBefore);
+        }
+
+        // A failed lookup only means the player may be new, which registration settles
+        return prefetch.result()
+                .exceptionally(error -> false)
+                .thenCompose(known -> dataManager.isFirstJoinAsync(uuid, known || playedBefore));
+    }
+
+    /**
+     * Drops lookups for players who never joined
+     */
+    private void evictStaleLookups() {
+        long now = System.nanoTime();
+        prefetches.values().removeIf(pending -> now - pending.startedAt() > PENDING_TTL_NANOS);
+        registrations.values().removeIf(pending -> now - pending.startedAt() > PENDING_TTL_NANOS);
     }
 
     /**
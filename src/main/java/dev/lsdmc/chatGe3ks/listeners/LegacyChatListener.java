@@ -0,0 +1,33 @@
+package dev.lsdmc.chatGe3ks.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+/**
+ * Feeds chat to the {@link ChatListener} from the Bukkit chat event, on servers that
+ * are not Paper. On Paper, {@link PaperChatListener} is registered instead.
+ */
+@SuppressWarnings("deprecation")
+public class LegacyChatListener implements Listener {
+
+    private final ChatListener chatListener;
+
+    /**
+     * Creates a new LegacyChatListener
+     *
+     * @param chatListener Handles the messages
+     */
+    public LegacyChatListener(ChatListener chatListener) {
+        this.chatListener = chatListener;
+    }
+
+    /**
+     * Uses MONITOR priority to avoid interfering with other chat plugins
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChat(AsyncPlayerChatEvent event) {
+        chatListener.handleChatMessage(event.getPlayer(), event.getMessage());
+    }
+}
@@ -0,0 +1,33 @@
+package dev.lsdmc.chatGe3ks.listeners;
+
+import io.papermc.paper.event.player.AsyncChatEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Feeds chat to the {@link ChatListener} from Paper's component-based chat event.
+ * Reads the plain text the client signed, so no component is serialized, and leaves
+ * the legacy chat event without listeners so Paper can skip converting for it.
+ */
+public class PaperChatListener implements Listener {
+
+    private final ChatListener chatListener;
+
+    /**
+     * Creates a new PaperChatListener
+     *
+     * @param chatListener Handles the messages
+     */
+    public PaperChatListener(ChatListener chatListener) {
+        this.chatListener = chatListener;
+    }
+
+    /**
+     * Uses MONITOR priority to avoid interfering with other chat plugins
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChat(AsyncChatEvent event) {
+        chatListener.handleChatMessage(event.getPlayer(), event.signedMessage().message());
+    }
+}
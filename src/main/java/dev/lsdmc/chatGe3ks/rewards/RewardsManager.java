@@ -1,7 +1,9 @@
 package dev.lsdmc.chatGe3ks.rewards;
 
 import dev.lsdmc.chatGe3ks.ChatGe3ks;
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
 import dev.lsdmc.chatGe3ks.util.Constants;
+import dev.lsdmc.chatGe3ks.util.JsonFiles;
 import dev.lsdmc.chatGe3ks.util.LoggerUtils;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -19,7 +21,9 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RewardsManager {
 
@@ -30,6 +34,12 @@ public class RewardsManager {
     private final ThreadLocalRandom random;
     private final LoggerUtils logger;
     private final MiniMessage miniMessage;
+    private final IoExecutor ioExecutor;
+
+    // Saves run off the main thread; older snapshots that finish last are skipped
+    private final AtomicLong saveVersion = new AtomicLong();
+    private final Object saveLock = new Object();
+    private long writtenVersion;
 
     public RewardsManager(ChatGe3ks plugin) {
         this.plugin = plugin;
@@ -39,6 +49,7 @@ public class RewardsManager {
         this.rewards = new ArrayList<>();
         this.logger = plugin.getLoggerUtils();
         this.miniMessage = MiniMessage.miniMessage();
+        this.ioExecutor = plugin.getIoExecutor();
     }
 
     /**
@@ -112,16 +123,34 @@ public class RewardsManager {
     }
 
     /**
-     * Saves the rewards to rewards.json.
-     * @return true if save was successful, false otherwise
+     * Saves the rewards to rewards.json on the I/O executor.
+     * @return Future completed with true if save was successful, false otherwise
      */
-    public boolean saveRewards() {
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(rewardsFile), StandardCharsets.UTF_8)) {
-            gson.toJson(rewards, writer);
-            return true;
-        } catch (IOException e) {
-            logger.error("Failed to save rewards", e);
-            return false;
+    public CompletableFuture<Boolean> saveRewards() {
+        List<Reward> snapshot = new ArrayList<>(rewards);
+        long version = saveVersion.incrementAndGet();
+
+        return ioExecutor.supply(IoExecutor.Resource.FILES, () -> writeRewards(snapshot, version))
+                .exceptionally(e -> {
+                    logger.error("Failed to save rewards", e);
+                    return false;
+                });
+    }
+
+    private boolean writeRewards(List<Reward> snapshot, long version) {
+        synchronized (saveLock) {
+            if (version < writtenVersion) {
+                return true; // A newer snapshot is already on disk
+            }
+
+            try {
+                JsonFiles.writeAtomically(gson, snapshot, rewardsFile);
+                writtenVersion = version;
+                return true;
+            } catch (IOException e) {
+                logger.error("Failed to save rewards", e);
+                return false;
+            }
         }
     }
 
@@ -161,11 +190,11 @@ public class RewardsManager {
      * Adds a new reward.
      *
      * @param reward The reward to add
-     * @return true if the reward was added successfully
+     * @return Future completed with true if the reward was added successfully
      */
-    public boolean addReward(Reward reward) {
+    public CompletableFuture<Boolean> addReward(Reward reward) {
         if (reward == null) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         // Validate item rewards
@@ -173,7 +202,7 @@ public class RewardsManager {
             try {
                 Material.valueOf(reward.getValue().toUpperCase());
             } catch (IllegalArgumentException e) {
-                return false;
+                return CompletableFuture.completedFuture(false);
             }
         }
 
@@ -185,11 +214,11 @@ public class RewardsManager {
      * Removes a reward at the specified index.
      *
      * @param index The index to remove
-     * @return true if the removal was successful
+     * @return Future completed with true if the removal was successful
      */
-    public boolean removeReward(int index) {
+    public CompletableFuture<Boolean> removeReward(int index) {
         if (index < 0 || index >= rewards.size()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         rewards.remove(index);
@@ -0,0 +1,196 @@
+package dev.lsdmc.chatGe3ks.tasks;
+
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Plugin-owned executor for blocking I/O, running every task on its own virtual thread.
+ * Keeps Redis and file work off the main thread and out of Bukkit's shared async pool.
+ * Each resource has a semaphore so a burst of tasks cannot, for example, ask for more
+ * Redis connections than the pool holds.
+ */
+public class IoExecutor {
+
+    /**
+     * Resources whose concurrent use is limited
+     */
+    public enum Resource {
+        REDIS,
+        FILES
+    }
+
+    private final LoggerUtils logger;
+    private final ExecutorService executor;
+    private final Map<Resource, Semaphore> permits = new EnumMap<>(Resource.class);
+
+    /**
+     * Creates a new executor
+     *
+     * @param logger The logger for task failures
+     * @param redisConcurrency Maximum concurrent Redis tasks, normally the connection pool size
+     * @param fileConcurrency Maximum concurrent file tasks
+     */
+    public IoExecutor(LoggerUtils logger, int redisConcurrency, int fileConcurrency) {
+        this.logger = logger;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ChatGe3ks-IO-", 0).factory());
+        this.permits.put(Resource.REDIS, new Semaphore(Math.max(1, redisConcurrency), true));
+        this.permits.put(Resource.FILES, new Semaphore(Math.max(1, fileConcurrency), true));
+    }
+
+    /**
+     * Runs a task holding a permit for the resource it uses
+     *
+     * @param resource The resource the task uses
+     * @param task The task
+     * @param <T> The result type
+     * @return Future completed with the task's result, or exceptionally if it failed or was rejected
+     */
+    public <T> CompletableFuture<T> supply(Resource resource, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(withPermit(resource, task));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Runs a task holding a permit for the resource it uses, logging any failure
+     *
+     * @param resource The resource the task uses
+     * @param task The task
+     * @return Future completed when the task has finished
+     */
+    public CompletableFuture<Void> run(Resource resource, Runnable task) {
+        return this.<Void>supply(resource, () -> {
+            task.run();
+            return null;
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.error("Error in " + resource.name().toLowerCase() + " I/O task", error);
+            }
+        });
+    }
+
+    /**
+     * Starts a long-running loop on its own virtual thread without holding a permit.
+     * The loop should take permits with {@link #withPermit} around each unit of work.
+     *
+     * @param loop The loop to run
+     * @return false if the executor has been shut down
+     */
+    public boolean startLoop(Runnable loop) {
+        try {
+            executor.execute(loop);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts a long-running loop like {@link #startLoop} and reports its result
+     *
+     * @param loop The loop to run, taking permits around each unit of work
+     * @param <T> The result type
+     * @return Future completed with the loop's result, or exceptionally if it failed or was rejected
+     */
+    public <T> CompletableFuture<T> supplyLoop(Callable<T> loop) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        boolean started = startLoop(() -> {
+            try {
+                future.complete(loop.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        if (!started) {
+            future.completeExceptionally(new RejectedExecutionException("I/O executor has been shut down"));
+        }
+
+        return future;
+    }
+
+    /**
+     * Runs one unit of a loop on the calling thread once a permit for the resource is free,
+     * for callbacks that cannot throw checked exceptions
+     *
+     * @param resource The resource the unit uses
+     * @param unit The unit of work
+     * @param <T> The result type
+     * @return The unit's result
+     * @throws IllegalStateException If the thread is interrupted while waiting
+     */
+    public <T> T withPermitUnchecked(Resource resource, Supplier<T> unit) {
+        Semaphore semaphore = permits.get(resource);
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + resource.name().toLowerCase() + " permit", e);
+        }
+        try {
+            return unit.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Runs a task on the calling thread once a permit for the resource is free
+     *
+     * @param resource The resource the task uses
+     * @param task The task
+     * @param <T> The result type
+     * @return The task's result
+     * @throws Exception If the task fails or the thread is interrupted while waiting
+     */
+    public <T> T withPermit(Resource resource, Callable<T> task) throws Exception {
+        Semaphore semaphore = permits.get(resource);
+        semaphore.acquire();
+        try {
+            return task.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Stops accepting tasks and waits for running ones to finish, interrupting them after the timeout
+     *
+     * @param timeoutMillis Maximum time to wait
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warning("I/O tasks did not finish within " + timeoutMillis + "ms, interrupting them");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
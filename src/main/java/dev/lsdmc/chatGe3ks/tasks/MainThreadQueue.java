@@ -0,0 +1,111 @@
+package dev.lsdmc.chatGe3ks.tasks;
+
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of plugin work that has to run on the main thread, drained once per tick.
+ * Each tick runs tasks until a time budget is used up and leaves the rest for the next
+ * tick, so a burst of joins or welcomes is spread over several ticks instead of
+ * stretching one. At least one task runs per tick, so the queue always makes progress.
+ * Tasks can be submitted from any thread and run in submission order.
+ */
+public class MainThreadQueue implements Runnable {
+
+    /**
+     * Point-in-time queue statistics
+     *
+     * @param depth Tasks waiting to run
+     * @param lastTickNanos Time spent draining on the latest tick
+     * @param lastTickTasks Tasks run on the latest tick
+     * @param maxTickNanos Longest time spent draining on any tick
+     * @param deferredTicks Ticks that ended with tasks left for the next one
+     */
+    public record Stats(int depth, long lastTickNanos, int lastTickTasks, long maxTickNanos, long deferredTicks) {}
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LoggerUtils logger;
+    private final long budgetNanos;
+
+    // Written on the main thread only
+    private volatile long lastTickNanos;
+    private volatile int lastTickTasks;
+    private volatile long maxTickNanos;
+    private volatile long deferredTicks;
+
+    /**
+     * Creates an empty queue
+     *
+     * @param logger Logger for tasks that throw
+     * @param budgetMillis Time each tick may spend on queued tasks
+     */
+    public MainThreadQueue(LoggerUtils logger, double budgetMillis) {
+        this.logger = logger;
+        this.budgetNanos = Math.max(1, (long) (budgetMillis * 1_000_000));
+    }
+
+    /**
+     * Queues a task to run on the main thread
+     *
+     * @param task The task
+     */
+    public void submit(Runnable task) {
+        depth.incrementAndGet();
+        tasks.add(task);
+    }
+
+    /**
+     * Runs queued tasks until the budget for this tick is used up
+     */
+    @Override
+    public void run() {
+        if (depth.get() == 0) {
+            lastTickNanos = 0;
+            lastTickTasks = 0;
+            return;
+        }
+
+        long start = System.nanoTime();
+        long now = start;
+        int ran = 0;
+        Runnable task;
+
+        while ((task = tasks.poll()) != null) {
+            depth.decrementAndGet();
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("Error in main thread task", e);
+            }
+            ran++;
+
+            now = System.nanoTime();
+            if (now - start >= budgetNanos) {
+                break;
+            }
+        }
+
+        long elapsed = now - start;
+        lastTickNanos = elapsed;
+        lastTickTasks = ran;
+        if (elapsed > maxTickNanos) {
+            maxTickNanos = elapsed;
+        }
+        if (depth.get() > 0) {
+            deferredTicks++;
+        }
+    }
+
+    /**
+     * Gets the current queue statistics
+     *
+     * @return A snapshot of the counters
+     */
+    public Stats stats() {
+        return new Stats(depth.get(), lastTickNanos, lastTickTasks, maxTickNanos, deferredTicks);
+    }
+}
@@ -0,0 +1,170 @@
+package dev.lsdmc.chatGe3ks.tasks;
+
+import dev.lsdmc.chatGe3ks.util.LoggerUtils;
+
+/**
+ * Hashed timer wheel advanced once per server tick.
+ * Timeouts hash into a ring of slots by their deadline tick, so scheduling and cancelling
+ * are O(1), and each tick only looks at the timeouts in one slot instead of scanning
+ * everything that is pending. Timeouts further away than one turn of the ring wait in
+ * their slot for the remaining number of turns.
+ *
+ * <p>Not thread safe: schedule, cancel and advance only from the main thread. Delays are
+ * in ticks, so they stretch with the tick rate when the server lags.</p>
+ */
+public final class TimerWheel implements Runnable {
+
+    // 512 ticks (25.6s) per turn keeps a one minute window within three turns
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final Timeout[] slots = new Timeout[WHEEL_SIZE];
+    private final LoggerUtils logger;
+    private long currentTick;
+    private int pending;
+
+    /**
+     * Creates an empty wheel
+     *
+     * @param logger Logger for tasks that throw
+     */
+    public TimerWheel(LoggerUtils logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Schedules a task to run once
+     *
+     * @param delayTicks Ticks until the task runs, at least 1
+     * @param task The task
+     * @return A handle that can cancel the task
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(task, 0);
+        insert(timeout, delayTicks);
+        return timeout;
+    }
+
+    /**
+     * Schedules a task to run repeatedly until cancelled
+     *
+     * @param delayTicks Ticks until the first run, at least 1
+     * @param periodTicks Ticks between runs, at least 1
+     * @param task The task
+     * @return A handle that can cancel the task
+     */
+    public Timeout scheduleRepeating(long delayTicks, long periodTicks, Runnable task) {
+        Timeout timeout = new Timeout(task, Math.max(1, periodTicks));
+        insert(timeout, delayTicks);
+        return timeout;
+    }
+
+    private void insert(Timeout timeout, long delayTicks) {
+        long delay = Math.max(1, delayTicks);
+        long deadline = currentTick + delay;
+        timeout.rounds = (delay - 1) / WHEEL_SIZE;
+        timeout.slot = (int) (deadline & MASK);
+
+        Timeout head = slots[timeout.slot];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[timeout.slot] = timeout;
+        timeout.scheduled = true;
+        pending++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.scheduled = false;
+        pending--;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks that are due
+     */
+    @Override
+    public void run() {
+        currentTick++;
+
+        // Take the due timeouts out first, so tasks can freely cancel or schedule others
+        Timeout due = null;
+        Timeout timeout = slots[(int) (currentTick & MASK)];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+            } else {
+                unlink(timeout);
+                timeout.next = due;
+                due = timeout;
+            }
+            timeout = next;
+        }
+
+        while (due != null) {
+            Timeout next = due.next;
+            due.next = null;
+            if (!due.cancelled) {
+                try {
+                    due.task.run();
+                } catch (Exception e) {
+                    logger.error("Error in scheduled task", e);
+                }
+                if (due.period > 0 && !due.cancelled) {
+                    insert(due, due.period);
+                }
+            }
+            due = next;
+        }
+    }
+
+    /**
+     * Gets the number of scheduled tasks
+     *
+     * @return The pending task count
+     */
+    public int size() {
+        return pending;
+    }
+
+    /**
+     * Handle for a scheduled task
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long period;
+        private Timeout prev;
+        private Timeout next;
+        private int slot;
+        private long rounds;
+        private boolean scheduled;
+        private boolean cancelled;
+
+        private Timeout(Runnable task, long period) {
+            this.task = task;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the task; does nothing if it already ran or was cancelled
+         */
+        public void cancel() {
+            cancelled = true;
+            if (scheduled) {
+                unlink(this);
+            }
+        }
+    }
+}
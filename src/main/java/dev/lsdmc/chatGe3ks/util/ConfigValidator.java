@@ -5,6 +5,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,11 +38,47 @@ public class ConfigValidator {
             isValid = false;
         }
 
+        // Validate greeter cap per newcomer
+        if (!validateInt(Constants.Config.WELCOME_MAX_GREETERS, 1, 100, 3)) {
+            isValid = false;
+        }
+
+        // Validate welcome broadcast window
+        if (!validateInt(Constants.Config.WELCOME_BROADCAST_WINDOW, 1, 30, 3)) {
+            isValid = false;
+        }
+
+        // Validate welcome rate limit
+        if (!validateDouble(Constants.Config.WELCOME_RATE_LIMIT_RATE, 0.01, 10, 0.2)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.WELCOME_RATE_LIMIT_BURST, 1, 20, 3)) {
+            isValid = false;
+        }
+
+        // Validate main thread budget
+        if (!validateDouble(Constants.Config.MAIN_THREAD_TICK_BUDGET, 0.1, 50, 2.0)) {
+            isValid = false;
+        }
+
+        // Validate welcome phrases
+        if (config.getStringList(Constants.Config.WELCOME_PHRASES).isEmpty()) {
+            config.set(Constants.Config.WELCOME_PHRASES, List.of("welcome"));
+            validationErrors.put(Constants.Config.WELCOME_PHRASES, "No welcome phrases, set to default: welcome");
+            isValid = false;
+        }
+
         // Validate Redis connection settings
         if (!validateRedisConfig(config)) {
             isValid = false;
         }
 
+        // Validate first join detection settings
+        if (!validateFirstJoinConfig()) {
+            isValid = false;
+        }
+
         // Log validation errors
         if (!isValid) {
             logger.warning("Configuration validation found " + validationErrors.size() + " issues:");
@@ -67,14 +104,37 @@ public class ConfigValidator {
             return false;
         }
 
-        // Validate host
-        if (!validateString("redis.host", 1, 255, "localhost")) {
+        // Validate connection mode
+        if (!validateEnum(Constants.Config.REDIS_MODE, new String[]{"standalone", "cluster", "sentinel"}, "standalone")) {
             isValid = false;
         }
 
-        // Validate port
-        if (!validateInt("redis.port", 1, 65535, 6379)) {
-            isValid = false;
+        if ("cluster".equalsIgnoreCase(config.getString(Constants.Config.REDIS_MODE))) {
+            // Validate cluster seed nodes
+            if (config.getStringList(Constants.Config.REDIS_CLUSTER_NODES).isEmpty()) {
+                validationErrors.put(Constants.Config.REDIS_CLUSTER_NODES, "Cluster mode needs at least one seed node");
+                isValid = false;
+            }
+        } else if ("sentinel".equalsIgnoreCase(config.getString(Constants.Config.REDIS_MODE))) {
+            // Validate sentinels
+            if (config.getStringList(Constants.Config.REDIS_SENTINEL_NODES).isEmpty()) {
+                validationErrors.put(Constants.Config.REDIS_SENTINEL_NODES, "Sentinel mode needs at least one sentinel");
+                isValid = false;
+            }
+
+            if (!validateString(Constants.Config.REDIS_SENTINEL_MASTER, 1, 255, "mymaster")) {
+                isValid = false;
+            }
+        } else {
+            // Validate host
+            if (!validateString("redis.host", 1, 255, "localhost")) {
+                isValid = false;
+            }
+
+            // Validate port
+            if (!validateInt("redis.port", 1, 65535, 6379)) {
+                isValid = false;
+            }
         }
 
         // Validate timeout
@@ -82,6 +142,94 @@ public class ConfigValidator {
             isValid = false;
         }
 
+        if (!validateInt(Constants.Config.REDIS_POOL_SIZE, 1, 128, 8)) {
+            isValid = false;
+        }
+
+        // Validate batching settings
+        if (!validateInt(Constants.Config.REDIS_BATCH_WINDOW, 0, 1000, 5)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_BATCH_MAX_SIZE, 1, 10000, 128)) {
+            isValid = false;
+        }
+
+        // Validate circuit breaker settings
+        if (!validateInt(Constants.Config.REDIS_BREAKER_FAILURE_RATE, 1, 100, 50)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_BREAKER_WINDOW, 1, 1000, 20)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_BREAKER_MINIMUM_CALLS, 1, 1000, 5)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_BREAKER_SLOW_CALL, 10, 30000, 1000)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_BREAKER_OPEN_DURATION, 1, 3600, 10)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_BREAKER_HALF_OPEN_CALLS, 1, 100, 3)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_HEALTH_CHECK_INTERVAL, 500, 60_000, 5000)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.REDIS_CLIENT_CACHE_MAX_ENTRIES, 100, 10_000_000, 100_000)) {
+            isValid = false;
+        }
+
+        return isValid;
+    }
+
+    /**
+     * Validates first join detection settings
+     * @return true if valid
+     */
+    private boolean validateFirstJoinConfig() {
+        boolean isValid = true;
+
+        if (!validateInt(Constants.Config.KNOWN_PLAYER_FILTER_EXPECTED, 1000, 100_000_000, 1_000_000)) {
+            isValid = false;
+        }
+
+        if (!validateDouble(Constants.Config.KNOWN_PLAYER_FILTER_FPP, 0.000001, 0.1, 0.001)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.LOCAL_CACHE_MAX_SIZE, 100, 1_000_000, 10_000)) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.LOCAL_CACHE_TTL, 60, 2_592_000, 86_400)) {
+            isValid = false;
+        }
+
+        if (!validateEnum(Constants.Config.FIRST_JOIN_BACKEND, new String[]{"redis", "embedded"}, "redis")) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.FIRST_JOIN_METADATA_DAILY_DAYS, 1, 3650, 90)) {
+            isValid = false;
+        }
+
+        if (!validateEnum(Constants.Config.FIRST_JOIN_LAYOUT, new String[]{"keys", "buckets"}, "keys")) {
+            isValid = false;
+        }
+
+        if (!validateInt(Constants.Config.FIRST_JOIN_BUCKET_BITS, 8, 24, 16)) {
+            isValid = false;
+        }
+
         return isValid;
     }
 
@@ -117,6 +265,38 @@ public class ConfigValidator {
         return true;
     }
 
+    /**
+     * Validates a decimal configuration value within a range
+     * @param path Configuration path
+     * @param min Minimum allowed value
+     * @param max Maximum allowed value
+     * @param defaultValue Default value to use if invalid
+     * @return true if value was valid
+     */
+    private boolean validateDouble(String path, double min, double max, double defaultValue) {
+        if (!plugin.getConfig().contains(path)) {
+            plugin.getConfig().set(path, defaultValue);
+            validationErrors.put(path, "Missing value, set to default: " + defaultValue);
+            return false;
+        }
+
+        if (!plugin.getConfig().isDouble(path) && !plugin.getConfig().isInt(path)) {
+            plugin.getConfig().set(path, defaultValue);
+            validationErrors.put(path, "Not a number, set to default: " + defaultValue);
+            return false;
+        }
+
+        double value = plugin.getConfig().getDouble(path);
+        if (value < min || value > max) {
+            plugin.getConfig().set(path, defaultValue);
+            validationErrors.put(path,
+                    "Value " + value + " out of range (" + min + "-" + max + "), set to default: " + defaultValue);
+            return false;
+        }
+
+        return true;
+    }
+
     /**
      * Validates a string configuration value
      * @param path Configuration path
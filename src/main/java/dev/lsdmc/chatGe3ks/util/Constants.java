@@ -18,12 +18,21 @@ public final class Constants {
     public static final class Files {
         public static final String WELCOME_MESSAGES_FILE = "welcome_messages.json";
         public static final String REWARDS_FILE = "rewards.json";
+        public static final String FIRST_JOIN_INDEX_FILE = "firstjoin.idx";
+        public static final String FIRST_JOIN_JOURNAL_FILE = "firstjoin.journal";
+        public static final String FIRST_JOIN_STORE_FILE = "firstjoin.log";
     }
 
     // Redis constants
     public static final class Redis {
         public static final String KEY_PREFIX = "chatgeeks:";
         public static final String FIRSTJOIN_PREFIX = KEY_PREFIX + "firstjoin:";
+        public static final String FIRSTJOIN_BUCKET_PREFIX = KEY_PREFIX + "fj:";
+        public static final String FIRSTJOIN_MIGRATED_KEY = KEY_PREFIX + "firstjoin-migrated";
+        public static final String FIRSTJOIN_SERVER_PREFIX = KEY_PREFIX + "firstjoin-server:";
+        public static final String FIRSTJOIN_BUCKET_SERVER_PREFIX = KEY_PREFIX + "fj-server:";
+        // Hash tag keeps the total and daily counters on one cluster node
+        public static final String NEW_PLAYERS_COUNTER = KEY_PREFIX + "stats:{new-players}";
     }
 
     // Config keys
@@ -32,7 +41,44 @@ public final class Constants {
         public static final String REDIS_PORT = "redis.port";
         public static final String REDIS_PASSWORD = "redis.password";
         public static final String REDIS_TIMEOUT = "redis.timeout";
+        public static final String REDIS_MODE = "redis.mode";
+        public static final String REDIS_CLUSTER_NODES = "redis.cluster.nodes";
+        public static final String REDIS_SENTINEL_MASTER = "redis.sentinel.master-name";
+        public static final String REDIS_SENTINEL_NODES = "redis.sentinel.nodes";
+        public static final String REDIS_SENTINEL_PASSWORD = "redis.sentinel.password";
+        public static final String REDIS_REPLICA_READS_ENABLED = "redis.replica-reads.enabled";
+        public static final String REDIS_REPLICA_READS_NODES = "redis.replica-reads.nodes";
+        public static final String REDIS_POOL_SIZE = "redis.pool-size";
+        public static final String REDIS_BATCH_WINDOW = "redis.batch.window-ms";
+        public static final String REDIS_BATCH_MAX_SIZE = "redis.batch.max-size";
+        public static final String REDIS_BREAKER_FAILURE_RATE = "redis.circuit-breaker.failure-rate-threshold";
+        public static final String REDIS_BREAKER_WINDOW = "redis.circuit-breaker.window-size";
+        public static final String REDIS_BREAKER_MINIMUM_CALLS = "redis.circuit-breaker.minimum-calls";
+        public static final String REDIS_BREAKER_SLOW_CALL = "redis.circuit-breaker.slow-call-threshold-ms";
+        public static final String REDIS_BREAKER_OPEN_DURATION = "redis.circuit-breaker.open-duration";
+        public static final String REDIS_BREAKER_HALF_OPEN_CALLS = "redis.circuit-breaker.half-open-calls";
+        public static final String REDIS_HEALTH_CHECK_INTERVAL = "redis.health-check.interval-ms";
+        public static final String REDIS_CLIENT_CACHE_ENABLED = "redis.client-cache.enabled";
+        public static final String REDIS_CLIENT_CACHE_MAX_ENTRIES = "redis.client-cache.max-entries";
         public static final String WELCOME_WINDOW = "welcome-window";
+        public static final String WELCOME_PHRASES = "welcome-phrases";
+        public static final String WELCOME_MAX_GREETERS = "welcome-max-greeters";
+        public static final String WELCOME_BROADCAST_WINDOW = "welcome-broadcast-window";
+        public static final String WELCOME_RATE_LIMIT_RATE = "welcome-rate-limit.per-second";
+        public static final String WELCOME_RATE_LIMIT_BURST = "welcome-rate-limit.burst";
+        public static final String MAIN_THREAD_TICK_BUDGET = "main-thread.tick-budget-ms";
+        public static final String KNOWN_PLAYER_FILTER_ENABLED = "first-join.known-player-filter.enabled";
+        public static final String KNOWN_PLAYER_FILTER_EXPECTED = "first-join.known-player-filter.expected-players";
+        public static final String KNOWN_PLAYER_FILTER_FPP = "first-join.known-player-filter.false-positive-rate";
+        public static final String LOCAL_CACHE_MAX_SIZE = "first-join.local-cache.max-size";
+        public static final String LOCAL_CACHE_TTL = "first-join.local-cache.ttl";
+        public static final String FIRST_JOIN_BACKEND = "first-join.storage.backend";
+        public static final String FIRST_JOIN_EMBEDDED_SYNC = "first-join.storage.embedded.sync";
+        public static final String FIRST_JOIN_METADATA_ENABLED = "first-join.metadata.enabled";
+        public static final String FIRST_JOIN_METADATA_SERVER_NAME = "first-join.metadata.server-name";
+        public static final String FIRST_JOIN_METADATA_DAILY_DAYS = "first-join.metadata.daily-counter-days";
+        public static final String FIRST_JOIN_LAYOUT = "first-join.storage.layout";
+        public static final String FIRST_JOIN_BUCKET_BITS = "first-join.storage.bucket-bits";
     }
 
     // Permission nodes
@@ -43,6 +89,10 @@ public final class Constants {
         public static final String WELCOME_ADD = WELCOME_BASE + ".add";
         public static final String WELCOME_REMOVE = WELCOME_BASE + ".remove";
         public static final String WELCOME_RELOAD = WELCOME_BASE + ".reload";
+        public static final String ADMIN_BASE = COMMAND_BASE + ".admin";
+        public static final String ADMIN_MIGRATE = ADMIN_BASE + ".migrate";
+        public static final String ADMIN_IMPORT = ADMIN_BASE + ".import";
+        public static final String ADMIN_STATUS = ADMIN_BASE + ".status";
     }
 
     // Chat formatting (MiniMessage format)
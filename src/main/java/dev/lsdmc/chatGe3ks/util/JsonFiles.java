@@ -0,0 +1,44 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Helpers for the plugin's JSON data files
+ */
+public final class JsonFiles {
+    // Prevent instantiation
+    private JsonFiles() {}
+
+    /**
+     * Writes a value as JSON to a temporary file and moves it over the target,
+     * so a crash mid-write never leaves a truncated file behind
+     *
+     * @param gson The Gson instance to serialize with
+     * @param value The value to write
+     * @param file The target file
+     * @throws IOException If the file could not be written
+     */
+    public static void writeAtomically(Gson gson, Object value, File file) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            gson.toJson(value, writer);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache with segmented LRU eviction and a time-to-live per entry.
+ * New entries start in a small probation segment and move to the protected segment
+ * when read again, so a burst of one-off keys cannot flush the entries that are
+ * actually reused. Probation may borrow whatever the protected segment is not using.
+ * Memory stays bounded by the maximum size however long it runs.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class SegmentedLruCache<K, V> {
+
+    // Share of the capacity reserved for entries that have been read at least once
+    private static final double PROTECTED_RATIO = 0.8;
+
+    /**
+     * Point-in-time cache statistics
+     *
+     * @param hits Lookups that found a live entry
+     * @param misses Lookups that found nothing or an expired entry
+     * @param evictions Entries dropped to stay within the maximum size
+     * @param expirations Entries dropped because their time-to-live passed
+     * @param size Current number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int size) {
+
+        /**
+         * Gets the share of lookups that were hits
+         *
+         * @return Hit rate between 0 and 1
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int capacity;
+    private final int protectedCapacity;
+    private final long ttlNanos;
+
+    // Both segments are access-ordered, eldest first
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Creates a new cache
+     *
+     * @param maximumSize Maximum number of entries
+     * @param ttl How long an entry stays valid after it was written
+     * @param unit Unit of the time-to-live
+     */
+    public SegmentedLruCache(int maximumSize, long ttl, TimeUnit unit) {
+        this.capacity = Math.max(2, maximumSize);
+        this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+        this.ttlNanos = unit.toNanos(Math.max(1, ttl));
+    }
+
+    /**
+     * Gets a live entry, promoting it to the protected segment
+     *
+     * @param key The key
+     * @return The value, or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        long now = System.nanoTime();
+
+        Entry<V> entry = protectedSegment.get(key);
+        if (entry == null) {
+            entry = probation.remove(key);
+            if (entry != null && !isExpired(entry, now)) {
+                promote(key, entry);
+            }
+        } else if (isExpired(entry, now)) {
+            protectedSegment.remove(key);
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(entry, now)) {
+            expirations++;
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Adds or replaces an entry, restarting its time-to-live
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public synchronized void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, entry);
+            return;
+        }
+
+        probation.put(key, entry);
+        evictOverflow();
+    }
+
+    /**
+     * Drops every expired entry
+     *
+     * @return Number of entries removed
+     */
+    public synchronized int cleanUp() {
+        long now = System.nanoTime();
+        int removed = purge(probation, now) + purge(protectedSegment, now);
+        expirations += removed;
+        return removed;
+    }
+
+    /**
+     * Gets the current number of entries, including ones that expired but were not yet dropped
+     *
+     * @return The entry count
+     */
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Gets the cache statistics
+     *
+     * @return A snapshot of the counters
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, expirations, size());
+    }
+
+    private void promote(K key, Entry<V> entry) {
+        protectedSegment.put(key, entry);
+
+        // Demoted entries get one more chance in probation before being evicted
+        while (protectedSegment.size() > protectedCapacity) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = protectedSegment.entrySet().iterator();
+            Map.Entry<K, Entry<V>> demoted = eldest.next();
+            eldest.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+        evictOverflow();
+    }
+
+    private void evictOverflow() {
+        while (probation.size() + protectedSegment.size() > capacity) {
+            LinkedHashMap<K, Entry<V>> victims = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<Map.Entry<K, Entry<V>>> eldest = victims.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static <K, V> int purge(LinkedHashMap<K, Entry<V>> segment, long now) {
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> entries = segment.entrySet().iterator();
+        while (entries.hasNext()) {
+            if (isExpired(entries.next().getValue(), now)) {
+                entries.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static boolean isExpired(Entry<?> entry, long now) {
+        return now - entry.expiresAt >= 0;
+    }
+}
@@ -0,0 +1,370 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe map from UUID to long, for per-player timestamps.
+ * Keys and values live inline in a single long array (most bits, least bits, value per
+ * slot) with linear probing, so there is no UUID, boxed Long or node per entry and no
+ * boxing on any operation, and lookups touch one cache line instead of following three
+ * references. UuidLongMapBenchmark and UuidLongMapFootprint under src/jmh compare its
+ * speed and memory use with ConcurrentHashMap&lt;UUID, Long&gt;.
+ *
+ * <p>Built for many readers and few writers: reads are optimistic and take no lock
+ * unless a write overlaps them, while writes are serialized.</p>
+ */
+public final class UuidLongMap {
+
+    private static final int STRIDE = 3;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Slot i holds the key at [i * 3] and [i * 3 + 1] and the value at [i * 3 + 2]; a zero key marks an empty slot
+    private long[] table;
+    private int size;
+
+    // The nil UUID is all zero bits, so it cannot live in the table
+    private boolean hasNilKey;
+    private long nilValue;
+
+    /**
+     * Creates an empty map
+     */
+    public UuidLongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map sized for an expected number of entries
+     *
+     * @param expectedSize Entries to hold without resizing
+     */
+    public UuidLongMap(int expectedSize) {
+        this.table = new long[capacityFor(expectedSize) * STRIDE];
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        // Keep the load at or below one half so probe sequences stay short
+        while (capacity < (long) entries * 2 && capacity < (1 << 29)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Gets the value for a key
+     *
+     * @param key The key
+     * @param defaultValue Returned if the key is absent
+     * @return The value, or the default
+     */
+    public long get(UUID key, long defaultValue) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits(), defaultValue);
+    }
+
+    /**
+     * Gets the value for a key given as its two halves
+     *
+     * @param most The most significant bits of the UUID
+     * @param least The least significant bits of the UUID
+     * @param defaultValue Returned if the key is absent
+     * @return The value, or the default
+     */
+    public long get(long most, long least, long defaultValue) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            long value = find(most, least, defaultValue);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(most, least, defaultValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks whether a key is present
+     *
+     * @param key The key
+     * @return true if the map holds a value for the key
+     */
+    public boolean containsKey(UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean found = contains(most, least);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return contains(most, least);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(UUID key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            insert(key.getMostSignificantBits(), key.getLeastSignificantBits(), value, true);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Associates a value with a key unless it already has one
+     *
+     * @param key The key
+     * @param value The value
+     * @return true if the value was added
+     */
+    public boolean putIfAbsent(UUID key, long value) {
+        return putIfAbsent(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * Associates a value with a key given as its two halves unless it already has one
+     *
+     * @param most The most significant bits of the UUID
+     * @param least The least significant bits of the UUID
+     * @param value The value
+     * @return true if the value was added
+     */
+    public boolean putIfAbsent(long most, long least, long value) {
+        long stamp = lock.writeLock();
+        try {
+            return insert(most, least, value, false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a key
+     *
+     * @param key The key
+     * @return true if the key was present
+     */
+    public boolean remove(UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+
+        long stamp = lock.writeLock();
+        try {
+            if (isNil(most, least)) {
+                if (!hasNilKey) {
+                    return false;
+                }
+                hasNilKey = false;
+                size--;
+                return true;
+            }
+
+            int index = indexOf(table, most, least);
+            if (index < 0) {
+                return false;
+            }
+            deleteAt(index);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the number of entries
+     *
+     * @return The entry count
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int current = size;
+        if (lock.validate(stamp)) {
+            return current;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks whether the map is empty
+     *
+     * @return true if there are no entries
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private boolean contains(long most, long least) {
+        return isNil(most, least) ? hasNilKey : indexOf(table, most, least) >= 0;
+    }
+
+    private long find(long most, long least, long defaultValue) {
+        if (isNil(most, least)) {
+            return hasNilKey ? nilValue : defaultValue;
+        }
+
+        long[] current = table;
+        int index = indexOf(current, most, least);
+        return index >= 0 ? current[index * STRIDE + 2] : defaultValue;
+    }
+
+    /**
+     * Finds the slot holding a key. May run against a table that a writer is changing,
+     * in which case the answer is discarded, so it must stay in bounds and terminate.
+     */
+    private static int indexOf(long[] table, long most, long least) {
+        if (isNil(most, least)) {
+            return -1;
+        }
+
+        int capacity = table.length / STRIDE;
+        int mask = capacity - 1;
+        int index = hash(most, least) & mask;
+
+        for (int probes = 0; probes < capacity; probes++) {
+            int base = index * STRIDE;
+            long slotMost = table[base];
+            long slotLeast = table[base + 1];
+            if (slotMost == most && slotLeast == least) {
+                return index;
+            }
+            if (slotMost == 0 && slotLeast == 0) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean insert(long most, long least, long value, boolean replace) {
+        if (isNil(most, least)) {
+            if (hasNilKey && !replace) {
+                return false;
+            }
+            if (!hasNilKey) {
+                size++;
+            }
+            hasNilKey = true;
+            nilValue = value;
+            return true;
+        }
+
+        int capacity = table.length / STRIDE;
+        if ((size + 1) * 2L > capacity) {
+            resize(capacity << 1);
+            capacity <<= 1;
+        }
+
+        int mask = capacity - 1;
+        int index = hash(most, least) & mask;
+        while (true) {
+            int base = index * STRIDE;
+            long slotMost = table[base];
+            long slotLeast = table[base + 1];
+            if (slotMost == most && slotLeast == least) {
+                if (!replace) {
+                    return false;
+                }
+                table[base + 2] = value;
+                return true;
+            }
+            if (slotMost == 0 && slotLeast == 0) {
+                table[base] = most;
+                table[base + 1] = least;
+                table[base + 2] = value;
+                size++;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] old = table;
+        long[] resized = new long[newCapacity * STRIDE];
+        int mask = newCapacity - 1;
+
+        for (int base = 0; base < old.length; base += STRIDE) {
+            long most = old[base];
+            long least = old[base + 1];
+            if (most == 0 && least == 0) {
+                continue;
+            }
+            int index = hash(most, least) & mask;
+            while (resized[index * STRIDE] != 0 || resized[index * STRIDE + 1] != 0) {
+                index = (index + 1) & mask;
+            }
+            System.arraycopy(old, base, resized, index * STRIDE, STRIDE);
+        }
+
+        table = resized;
+    }
+
+    /**
+     * Empties a slot and shifts later entries of the probe run back, so lookups never
+     * need tombstones
+     */
+    private void deleteAt(int index) {
+        int mask = table.length / STRIDE - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (table[next * STRIDE] != 0 || table[next * STRIDE + 1] != 0) {
+            int home = hash(table[next * STRIDE], table[next * STRIDE + 1]) & mask;
+            // Move the entry into the hole unless its home lies cyclically in (hole, next]
+            boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stays) {
+                System.arraycopy(table, next * STRIDE, table, hole * STRIDE, STRIDE);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        int base = hole * STRIDE;
+        table[base] = 0;
+        table[base + 1] = 0;
+        table[base + 2] = 0;
+    }
+
+    private static boolean isNil(long most, long least) {
+        return most == 0 && least == 0;
+    }
+
+    private static int hash(long most, long least) {
+        // Finalizer of MurmurHash3, so name-based and sequential UUIDs spread as well as random ones
+        long h = most ^ Long.rotateLeft(least, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
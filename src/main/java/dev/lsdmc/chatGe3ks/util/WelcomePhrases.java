@@ -0,0 +1,235 @@
+package dev.lsdmc.chatGe3ks.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Recognizes chat messages that are a welcome, in any of the configured phrases.
+ * The phrases are compiled once into a deterministic automaton (a trie flattened into
+ * arrays), and a message is checked in a single pass over its characters with no
+ * allocation. Most messages leave the automaton on their first character.
+ *
+ * <p>Messages and phrases are compared after the same normalization: Unicode case
+ * folding, punctuation and symbols ignored, and runs of whitespace, dashes and
+ * underscores collapsed to a single space with none at either end. So "Welcome!!",
+ * "  WB :)" and "ようこそ。" all match their phrase, and "bem-vindo" matches "bem vindo". The whole message has to be a phrase; a phrase inside a longer sentence
+ * is not a welcome.</p>
+ */
+public final class WelcomePhrases {
+
+    private static final int START = 0;
+    private static final int DEAD = -1;
+
+    // Transitions of state s are edgeChars/edgeTargets[edgeStart[s]..edgeStart[s + 1]), sorted by code point
+    private final int[] edgeStart;
+    private final int[] edgeChars;
+    private final int[] edgeTargets;
+    private final boolean[] accepting;
+    private final int phraseCount;
+
+    private WelcomePhrases(int[] edgeStart, int[] edgeChars, int[] edgeTargets, boolean[] accepting, int phraseCount) {
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.accepting = accepting;
+        this.phraseCount = phraseCount;
+    }
+
+    /**
+     * Compiles a set of phrases into a matcher
+     *
+     * @param phrases The phrases; ones with nothing left after normalization are skipped
+     * @return The compiled matcher
+     */
+    public static WelcomePhrases compile(Collection<String> phrases) {
+        List<TreeMap<Integer, Integer>> transitions = new ArrayList<>();
+        List<Boolean> accepts = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        accepts.add(false);
+
+        int count = 0;
+        for (String phrase : phrases) {
+            int[] codePoints = normalize(phrase);
+            if (codePoints.length == 0) {
+                continue;
+            }
+
+            int state = START;
+            for (int codePoint : codePoints) {
+                Integer next = transitions.get(state).get(codePoint);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(codePoint, next);
+                    transitions.add(new TreeMap<>());
+                    accepts.add(false);
+                }
+                state = next;
+            }
+            if (!accepts.get(state)) {
+                accepts.set(state, true);
+                count++;
+            }
+        }
+
+        int states = transitions.size();
+        int[] edgeStart = new int[states + 1];
+        int edges = 0;
+        for (int s = 0; s < states; s++) {
+            edgeStart[s] = edges;
+            edges += transitions.get(s).size();
+        }
+        edgeStart[states] = edges;
+
+        int[] edgeChars = new int[edges];
+        int[] edgeTargets = new int[edges];
+        boolean[] accepting = new boolean[states];
+        for (int s = 0; s < states; s++) {
+            int edge = edgeStart[s];
+            for (var transition : transitions.get(s).entrySet()) {
+                edgeChars[edge] = transition.getKey();
+                edgeTargets[edge] = transition.getValue();
+                edge++;
+            }
+            accepting[s] = accepts.get(s);
+        }
+
+        return new WelcomePhrases(edgeStart, edgeChars, edgeTargets, accepting, count);
+    }
+
+    /**
+     * Checks whether a message is one of the phrases
+     *
+     * @param message The chat message
+     * @return true if the message is a welcome
+     */
+    public boolean matches(String message) {
+        int state = START;
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < message.length(); ) {
+            int codePoint = message.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isSeparator(codePoint)) {
+                pendingSpace = state != START;
+                continue;
+            }
+            if (isIgnored(codePoint)) {
+                continue;
+            }
+
+            if (pendingSpace) {
+                state = step(state, ' ');
+                pendingSpace = false;
+                if (state == DEAD) {
+                    return false;
+                }
+            }
+            state = step(state, fold(codePoint));
+            if (state == DEAD) {
+                return false;
+            }
+        }
+
+        return accepting[state];
+    }
+
+    /**
+     * Gets the number of distinct phrases after normalization
+     *
+     * @return The phrase count
+     */
+    public int size() {
+        return phraseCount;
+    }
+
+    private int step(int state, int codePoint) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = edgeChars[mid];
+            if (c < codePoint) {
+                low = mid + 1;
+            } else if (c > codePoint) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return DEAD;
+    }
+
+    /**
+     * Normalizes a phrase the same way {@link #matches(String)} reads a message
+     */
+    private static int[] normalize(String phrase) {
+        List<Integer> codePoints = new ArrayList<>();
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < phrase.length(); ) {
+            int codePoint = phrase.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isSeparator(codePoint)) {
+                pendingSpace = !codePoints.isEmpty();
+                continue;
+            }
+            if (isIgnored(codePoint)) {
+                continue;
+            }
+
+            if (pendingSpace) {
+                codePoints.add((int) ' ');
+                pendingSpace = false;
+            }
+            codePoints.add(fold(codePoint));
+        }
+
+        return codePoints.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Folds case so that upper, lower and title case forms of a letter compare equal
+     */
+    private static int fold(int codePoint) {
+        if (codePoint < 0x80) {
+            return codePoint >= 'A' && codePoint <= 'Z' ? codePoint + ('a' - 'A') : codePoint;
+        }
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+
+    /**
+     * Whitespace, plus dashes and connectors such as "-" and "_", which join words
+     * rather than decorate them
+     */
+    private static boolean isSeparator(int codePoint) {
+        if (codePoint < 0x80) {
+            return codePoint == '-' || codePoint == '_' || Character.isWhitespace(codePoint);
+        }
+        int type = Character.getType(codePoint);
+        return type == Character.DASH_PUNCTUATION || type == Character.CONNECTOR_PUNCTUATION
+                || Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint);
+    }
+
+    /**
+     * Punctuation and symbols, so trailing "!", quotes and emoticons do not stop a match.
+     * Format characters and non-spacing marks go too, which covers the joiners and
+     * variation selectors inside emoji.
+     */
+    private static boolean isIgnored(int codePoint) {
+        if (codePoint < 0x80) {
+            return !Character.isLetterOrDigit(codePoint);
+        }
+        return switch (Character.getType(codePoint)) {
+            case Character.START_PUNCTUATION, Character.END_PUNCTUATION,
+                 Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION, Character.MATH_SYMBOL, Character.CURRENCY_SYMBOL,
+                 Character.MODIFIER_SYMBOL, Character.OTHER_SYMBOL,
+                 Character.FORMAT, Character.NON_SPACING_MARK -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package dev.lsdmc.chatGe3ks.welcome;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Newcomers whose welcome window is open, in join order, with the greeters each has
+ * already rewarded. A welcome goes to the most recent newcomer the greeter has not yet
+ * welcomed, so each greeter/newcomer pair pays out once, and a newcomer stops paying
+ * out after a fixed number of greeters.
+ *
+ * <p>Only used from the main thread.</p>
+ */
+public class NewcomerIndex {
+
+    private static final class Newcomer {
+        final UUID uuid;
+        final String name;
+
+        // Greeter UUIDs as (most, least) pairs; at most maxGreeters of them, so a scan is cheap
+        long[] greeters = new long[4];
+        int greeterCount;
+
+        // Join order, newest at the head
+        Newcomer older;
+        Newcomer newer;
+
+        Newcomer(UUID uuid, String name) {
+            this.uuid = uuid;
+            this.name = name;
+        }
+
+        boolean wasGreetedBy(UUID greeter) {
+            long most = greeter.getMostSignificantBits();
+            long least = greeter.getLeastSignificantBits();
+            for (int i = 0; i < greeterCount * 2; i += 2) {
+                if (greeters[i] == most && greeters[i + 1] == least) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addGreeter(UUID greeter) {
+            if (greeterCount * 2 == greeters.length) {
+                greeters = Arrays.copyOf(greeters, greeters.length * 2);
+            }
+            greeters[greeterCount * 2] = greeter.getMostSignificantBits();
+            greeters[greeterCount * 2 + 1] = greeter.getLeastSignificantBits();
+            greeterCount++;
+        }
+    }
+
+    private final Map<UUID, Newcomer> newcomers = new HashMap<>();
+    private final int maxGreeters;
+    private Newcomer newest;
+
+    /**
+     * Creates an empty index
+     *
+     * @param maxGreeters How many greeters can be rewarded for one newcomer
+     */
+    public NewcomerIndex(int maxGreeters) {
+        this.maxGreeters = Math.max(1, maxGreeters);
+    }
+
+    /**
+     * Adds a newcomer as the most recent one. A newcomer already present keeps the
+     * greeters they had, so rejoining does not let the same greeters be rewarded again.
+     *
+     * @param uuid The newcomer
+     * @param name The newcomer's name, for messages
+     */
+    public void add(UUID uuid, String name) {
+        Newcomer newcomer = newcomers.get(uuid);
+        if (newcomer != null) {
+            unlink(newcomer);
+        } else {
+            newcomer = new Newcomer(uuid, name);
+            newcomers.put(uuid, newcomer);
+        }
+
+        newcomer.older = newest;
+        if (newest != null) {
+            newest.newer = newcomer;
+        }
+        newest = newcomer;
+    }
+
+    /**
+     * Removes a newcomer
+     *
+     * @param uuid The newcomer
+     */
+    public void remove(UUID uuid) {
+        Newcomer newcomer = newcomers.remove(uuid);
+        if (newcomer != null) {
+            unlink(newcomer);
+        }
+    }
+
+    private void unlink(Newcomer newcomer) {
+        if (newcomer.newer != null) {
+            newcomer.newer.older = newcomer.older;
+        } else {
+            newest = newcomer.older;
+        }
+        if (newcomer.older != null) {
+            newcomer.older.newer = newcomer.newer;
+        }
+        newcomer.newer = null;
+        newcomer.older = null;
+    }
+
+    /**
+     * Finds the newcomer a welcome from this player is for: the most recent one who is not
+     * the greeter and has not been welcomed by them yet. Newcomers that reached the cap are
+     * removed when they reach it, so normally this is the newest newcomer.
+     *
+     * @param greeter The player who sent the welcome
+     * @return The newcomer, or null if the welcome earns nothing
+     */
+    public UUID resolve(UUID greeter) {
+        for (Newcomer newcomer = newest; newcomer != null; newcomer = newcomer.older) {
+            if (!newcomer.uuid.equals(greeter) && !newcomer.wasGreetedBy(greeter)) {
+                return newcomer.uuid;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that a greeter was rewarded for welcoming a newcomer
+     *
+     * @param newcomer The newcomer returned by {@link #resolve(UUID)}
+     * @param greeter The greeter
+     * @return true if the newcomer has now reached the greeter cap and should be removed
+     */
+    public boolean recordGreeting(UUID newcomer, UUID greeter) {
+        Newcomer entry = newcomers.get(newcomer);
+        if (entry == null) {
+            return false;
+        }
+        entry.addGreeter(greeter);
+        return entry.greeterCount >= maxGreeters;
+    }
+
+    /**
+     * Gets a newcomer's name
+     *
+     * @param uuid The newcomer
+     * @return The name, or null if the newcomer is not in the index
+     */
+    public String nameOf(UUID uuid) {
+        Newcomer newcomer = newcomers.get(uuid);
+        return newcomer != null ? newcomer.name : null;
+    }
+
+    /**
+     * Gets the number of newcomers
+     *
+     * @return The newcomer count
+     */
+    public int size() {
+        return newcomers.size();
+    }
+}
@@ -0,0 +1,138 @@
+package dev.lsdmc.chatGe3ks.welcome;
+
+import dev.lsdmc.chatGe3ks.ChatGe3ks;
+import dev.lsdmc.chatGe3ks.tasks.MainThreadQueue;
+import dev.lsdmc.chatGe3ks.tasks.TimerWheel;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Announces rewarded welcomes to the server, one message per newcomer.
+ * Welcomes for a newcomer are collected for a short window after the first one and then
+ * announced together, e.g. "Alice, Bob and 12 others welcomed Steve", so a crowd of
+ * greeters costs each player one chat message instead of one per greeter. The message is
+ * rendered once per announcement and sent to everyone online except the greeters.
+ *
+ * <p>Only used from the main thread.</p>
+ */
+public class WelcomeBroadcaster {
+
+    // Greeters named before the rest are summarized as a count
+    private static final int NAMED_GREETERS = 2;
+
+    private static final class PendingBroadcast {
+        final String newcomerName;
+        final Set<UUID> greeters = new HashSet<>();
+        final List<String> names = new ArrayList<>(NAMED_GREETERS + 1);
+
+        PendingBroadcast(String newcomerName) {
+            this.newcomerName = newcomerName;
+        }
+    }
+
+    private final ChatGe3ks plugin;
+    private final TimerWheel timerWheel;
+    private final MainThreadQueue mainThreadQueue;
+    private final long windowTicks;
+    private final Map<UUID, PendingBroadcast> pending = new HashMap<>();
+
+    /**
+     * Creates a new broadcaster
+     *
+     * @param plugin The plugin instance
+     * @param timerWheel The wheel that ends collection windows
+     * @param mainThreadQueue The queue announcements are sent from
+     * @param windowTicks How long to collect welcomes for a newcomer before announcing them
+     */
+    public WelcomeBroadcaster(ChatGe3ks plugin, TimerWheel timerWheel, MainThreadQueue mainThreadQueue, long windowTicks) {
+        this.plugin = plugin;
+        this.timerWheel = timerWheel;
+        this.mainThreadQueue = mainThreadQueue;
+        this.windowTicks = Math.max(1, windowTicks);
+    }
+
+    /**
+     * Records a rewarded welcome, to be announced when the newcomer's window ends
+     *
+     * @param greeter The player who welcomed the newcomer
+     * @param newcomer The newcomer
+     * @param newcomerName The newcomer's name
+     */
+    public void record(Player greeter, UUID newcomer, String newcomerName) {
+        PendingBroadcast broadcast = pending.get(newcomer);
+        if (broadcast == null) {
+            broadcast = new PendingBroadcast(newcomerName);
+            pending.put(newcomer, broadcast);
+            timerWheel.schedule(windowTicks, () -> mainThreadQueue.submit(() -> flush(newcomer)));
+        }
+
+        // One name past the named ones, so exactly three greeters are all named
+        if (broadcast.greeters.add(greeter.getUniqueId()) && broadcast.names.size() <= NAMED_GREETERS) {
+            broadcast.names.add(greeter.getName());
+        }
+    }
+
+    /**
+     * Sends the collected welcomes for a newcomer
+     *
+     * @param newcomer The newcomer
+     */
+    private void flush(UUID newcomer) {
+        PendingBroadcast broadcast = pending.remove(newcomer);
+        if (broadcast == null) {
+            return;
+        }
+
+        Component message = render(broadcast);
+        Set<UUID> greeters = broadcast.greeters;
+
+        // Send to all players except the greeters
+        plugin.adventure()
+                .filter(sender -> sender instanceof Player player && !greeters.contains(player.getUniqueId()))
+                .sendMessage(message);
+    }
+
+    private static Component render(PendingBroadcast broadcast) {
+        int count = broadcast.greeters.size();
+        List<String> names = broadcast.names;
+
+        if (count == 1) {
+            return name(names.get(0))
+                    .append(text(" has welcomed "))
+                    .append(name(broadcast.newcomerName))
+                    .append(text(" and received a reward!"));
+        }
+
+        Component greeters;
+        if (count == 2) {
+            greeters = name(names.get(0)).append(text(" and ")).append(name(names.get(1)));
+        } else {
+            Component last = count == NAMED_GREETERS + 1
+                    ? name(names.get(NAMED_GREETERS))
+                    : text((count - NAMED_GREETERS) + " others");
+            greeters = name(names.get(0)).append(text(", ")).append(name(names.get(1)))
+                    .append(text(" and ")).append(last);
+        }
+
+        return greeters.append(text(" welcomed "))
+                .append(name(broadcast.newcomerName))
+                .append(text(" and were rewarded!"));
+    }
+
+    private static Component name(String name) {
+        return Component.text(name).color(NamedTextColor.GOLD);
+    }
+
+    private static Component text(String text) {
+        return Component.text(text).color(NamedTextColor.YELLOW);
+    }
+}
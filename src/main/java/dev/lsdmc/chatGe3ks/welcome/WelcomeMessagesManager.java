@@ -4,7 +4,9 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import dev.lsdmc.chatGe3ks.ChatGe3ks;
+import dev.lsdmc.chatGe3ks.tasks.IoExecutor;
 import dev.lsdmc.chatGe3ks.util.Constants;
+import dev.lsdmc.chatGe3ks.util.JsonFiles;
 import dev.lsdmc.chatGe3ks.util.LoggerUtils;
 
 import java.io.*;
@@ -12,8 +14,9 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.logging.Level;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class WelcomeMessagesManager {
 
@@ -23,6 +26,12 @@ public class WelcomeMessagesManager {
     private final Gson gson;
     private final ThreadLocalRandom random;
     private final LoggerUtils logger;
+    private final IoExecutor ioExecutor;
+
+    // Saves run off the main thread; older snapshots that finish last are skipped
+    private final AtomicLong saveVersion = new AtomicLong();
+    private final Object saveLock = new Object();
+    private long writtenVersion;
 
     public WelcomeMessagesManager(ChatGe3ks plugin) {
         this.plugin = plugin;
@@ -31,6 +40,7 @@ public class WelcomeMessagesManager {
         this.messagesFile = new File(plugin.getDataFolder(), Constants.Files.WELCOME_MESSAGES_FILE);
         this.messages = new ArrayList<>();
         this.logger = plugin.getLoggerUtils();
+        this.ioExecutor = plugin.getIoExecutor();
     }
 
     /**
@@ -79,16 +89,34 @@ public class WelcomeMessagesManager {
     }
 
     /**
-     * Saves the current welcome messages to welcome_messages.json.
-     * @return true if save was successful, false otherwise
+     * Saves the current welcome messages to welcome_messages.json on the I/O executor.
+     * @return Future completed with true if save was successful, false otherwise
      */
-    public boolean saveMessages() {
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(messagesFile), StandardCharsets.UTF_8)) {
-            gson.toJson(messages, writer);
-            return true;
-        } catch (IOException e) {
-            logger.error("Failed to save welcome messages", e);
-            return false;
+    public CompletableFuture<Boolean> saveMessages() {
+        List<String> snapshot = new ArrayList<>(messages);
+        long version = saveVersion.incrementAndGet();
+
+        return ioExecutor.supply(IoExecutor.Resource.FILES, () -> writeMessages(snapshot, version))
+                .exceptionally(e -> {
+                    logger.error("Failed to save welcome messages", e);
+                    return false;
+                });
+    }
+
+    private boolean writeMessages(List<String> snapshot, long version) {
+        synchronized (saveLock) {
+            if (version < writtenVersion) {
+                return true; // A newer snapshot is already on disk
+            }
+
+            try {
+                JsonFiles.writeAtomically(gson, snapshot, messagesFile);
+                writtenVersion = version;
+                return true;
+            } catch (IOException e) {
+                logger.error("Failed to save welcome messages", e);
+                return false;
+            }
         }
     }
 
@@ -108,11 +136,11 @@ public class WelcomeMessagesManager {
      * Adds a new welcome message.
      *
      * @param message The message to add.
-     * @return true if message was added and saved successfully
+     * @return Future completed with true if message was added and saved successfully
      */
-    public boolean addMessage(String message) {
+    public CompletableFuture<Boolean> addMessage(String message) {
         if (message == null || message.trim().isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         messages.add(message.trim());
@@ -123,11 +151,11 @@ public class WelcomeMessagesManager {
      * Removes a welcome message at the specified index.
      *
      * @param index The index (0-based) of the message to remove.
-     * @return true if removal was successful.
+     * @return Future completed with true if removal was successful.
      */
-    public boolean removeMessage(int index) {
+    public CompletableFuture<Boolean> removeMessage(int index) {
         if (index < 0 || index >= messages.size()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         messages.remove(index);
@@ -0,0 +1,132 @@
+package dev.lsdmc.chatGe3ks.welcome;
+
+import dev.lsdmc.chatGe3ks.util.UuidLongMap;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player limit on welcome attempts, checked on the chat thread before anything is
+ * scheduled. Uses the generic cell rate algorithm: each player has one long, the time at
+ * which their next attempt is due, and an attempt is allowed while that time is no more
+ * than the burst allowance ahead of now. Checking is a lock-free read of the player's
+ * slot and a compare-and-set, with no allocation.
+ *
+ * <p>Online players get a slot when they join and give it back when they quit, both on
+ * the main thread. A player without a slot is not limited.</p>
+ */
+public class WelcomeRateLimiter {
+
+    private static final long NO_SLOT = -1;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final UuidLongMap slots;
+    private final LongAdder rejected = new LongAdder();
+
+    // Theoretical arrival time per slot; replaced only when growing, on the main thread
+    private volatile AtomicLongArray arrivals;
+
+    // Slot allocation, main thread only
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int nextSlot;
+
+    /**
+     * Creates a new limiter
+     *
+     * @param perSecond Sustained welcome attempts allowed per second
+     * @param burst Attempts allowed back to back before the rate applies
+     * @param expectedPlayers Players to size the slot table for
+     */
+    public WelcomeRateLimiter(double perSecond, int burst, int expectedPlayers) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.slots = new UuidLongMap(expectedPlayers);
+        this.arrivals = new AtomicLongArray(Math.max(16, expectedPlayers));
+    }
+
+    /**
+     * Gives a player a slot; call on the main thread when they join
+     *
+     * @param uuid The player
+     */
+    public void track(UUID uuid) {
+        if (slots.containsKey(uuid)) {
+            return;
+        }
+
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot++;
+        AtomicLongArray current = arrivals;
+        if (slot >= current.length()) {
+            // Attempts that land on the old array while copying are lost, which only loosens the limit once
+            AtomicLongArray grown = new AtomicLongArray(current.length() * 2);
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            arrivals = grown;
+            current = grown;
+        }
+
+        current.set(slot, Long.MIN_VALUE);
+        slots.put(uuid, slot);
+    }
+
+    /**
+     * Frees a player's slot; call on the main thread when they quit
+     *
+     * @param uuid The player
+     */
+    public void untrack(UUID uuid) {
+        long slot = slots.get(uuid, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return;
+        }
+
+        slots.remove(uuid);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = (int) slot;
+    }
+
+    /**
+     * Checks whether a player may make a welcome attempt now, counting it if so
+     *
+     * @param uuid The player
+     * @return true if the attempt is allowed
+     */
+    public boolean tryAcquire(UUID uuid) {
+        long slot = slots.get(uuid, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return true;
+        }
+
+        AtomicLongArray current = arrivals;
+        int index = (int) slot;
+        long now = System.nanoTime();
+
+        while (true) {
+            long arrival = current.get(index);
+            long due = Math.max(arrival, now);
+            if (due - now > toleranceNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (current.compareAndSet(index, arrival, due + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of attempts dropped since startup
+     *
+     * @return The rejected attempt count
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+}